@@ -1,6 +1,7 @@
 package aircraftsurveillance;
 
 import aircraftsurveillance.transponder.ExtendedSquitter;
+import aircraftsurveillance.transponder.ModeSFrameView;
 import aircraftsurveillance.transponder.ModeSMessage;
 import aircraftsurveillance.transponder.TransponderMessage;
 import aircraftsurveillance.transponder.adsb1090.*;
@@ -19,13 +20,33 @@ import java.util.List;
 class Aircraft {
     private int address = 0;
     private Instant updateTimestamp = Instant.MIN;
-    private final AircraftPosition aircraftPosition = new AircraftPosition();
+    private final AircraftPosition aircraftPosition;
+    private Geodesy receiverGeodesy = Geodesy.VINCENTY;
 
     private final AircraftState aircraftState = new AircraftState();
     private final List<AircraftState> aircraftStateList = new LinkedList<AircraftState>();
 
     public Aircraft(int address) {
+        this(address, false, 0);
+    }
+
+    /**
+     * @param address       ICAO address of the aircraft
+     * @param localDecoding true to decode airborne positions from single reports instead of even/odd pairs
+     * @param receiverRange reception range of the receivers in nautical miles
+     */
+    public Aircraft(int address, boolean localDecoding, double receiverRange) {
         this.address = address;
+        aircraftPosition = new AircraftPosition(localDecoding, receiverRange);
+    }
+
+    /**
+     * @param plausibilityGeodesy method used to check whether a decoded position is plausible
+     * @param receiverGeodesy     method used for the distance and bearing of the aircraft from the receiver
+     */
+    public void setGeodesy(Geodesy plausibilityGeodesy, Geodesy receiverGeodesy) {
+        aircraftPosition.setGeodesy(plausibilityGeodesy);
+        this.receiverGeodesy = receiverGeodesy;
     }
 
     public int getAddress() {
@@ -315,6 +336,55 @@ class Aircraft {
             updateTransponderMessage((TransponderMessage) aircraftSurveillanceMessage);
         }
 
+        updateAircraftStateList();
+    }
+
+    /**
+     * Applies an airborne position or airborne velocity straight from a view, without parsing the frame into a
+     * message.  Only frames for which isAppliedFromView() is true can be applied this way, the caller parses any other
+     * frame with its decode policy and applies it with update(AircraftSurveillanceMessage).
+     *
+     * @param view      view of an extended squitter for which isAppliedFromView() is true, only read during the call
+     * @param timestamp time the frame was received, view.getTimestamp()
+     * @throws IllegalArgumentException if the frame can not be applied from the view
+     */
+    public void update(ModeSFrameView view, Instant timestamp) {
+        Adsb1090View adsb1090View = view.getAdsb1090View();
+        if ((adsb1090View == null) || !isAppliedFromView(adsb1090View)) {
+            throw new IllegalArgumentException("Aircraft.update(view, timestamp): the frame is not an airborne position or airborne velocity that can be applied from the view");
+        }
+
+        updateTimestamp = timestamp;
+        Position receiverPosition = aircraftPosition.getReceiverPosition();
+        if ((receiverPosition == null) || (receiverPosition.getLatitude() != view.getReceiverLatitude()) || (receiverPosition.getLongitude() != view.getReceiverLongitude())) {
+            // the receiver of a log file rarely moves, so its position is only replaced when it changes
+            aircraftPosition.setReceiverPosition(new Position(view.getReceiverLatitude(), view.getReceiverLongitude()));
+        }
+
+        if (adsb1090View.isAirbornePosition()) {
+            updateAirbornePosition(adsb1090View.getCprFormat(), adsb1090View.getEncodedLatitude(), adsb1090View.getEncodedLongitude(), adsb1090View.isAltitudeAvailable(), adsb1090View.getAltitude(), timestamp);
+        } else if (adsb1090View.isAirspeedAndHeading()) {
+            updateAirspeedAndHeading(adsb1090View.isAirspeedAvailable(), adsb1090View.getAirspeed(), adsb1090View.isHeadingAvailable(), adsb1090View.getHeading(), timestamp);
+            updateVerticalRate(adsb1090View.isVerticalRateAvailable(), adsb1090View.isVerticalRateNegative(), adsb1090View.getVerticalRate(), timestamp);
+            updateGeometricHeightDifference(adsb1090View.isGeometricHeightDifferenceAvailable(), adsb1090View.isGeometricHeightBelowBaroAltitude(), adsb1090View.getGeometricHeightDifference(), timestamp);
+        } else {
+            updateGroundVelocity(adsb1090View.isEastWestVelocityAvailable() & adsb1090View.isNorthSouthVelocityAvailable(), adsb1090View.isWestVelocity(), adsb1090View.getEastWestVelocity(), adsb1090View.isSouthVelocity(), adsb1090View.getNorthSouthVelocity(), timestamp);
+            updateVerticalRate(adsb1090View.isVerticalRateAvailable(), adsb1090View.isVerticalRateNegative(), adsb1090View.getVerticalRate(), timestamp);
+            updateGeometricHeightDifference(adsb1090View.isGeometricHeightDifferenceAvailable(), adsb1090View.isGeometricHeightBelowBaroAltitude(), adsb1090View.getGeometricHeightDifference(), timestamp);
+        }
+
+        updateAircraftStateList();
+    }
+
+    /**
+     * @return true for the messages update(ModeSFrameView, Instant) applies straight from the view, the airborne
+     * positions and airborne velocities that parse into a valid message
+     */
+    static boolean isAppliedFromView(Adsb1090View adsb1090View) {
+        return (adsb1090View.isAirbornePosition() && adsb1090View.isAltitudeValid()) | adsb1090View.isAirspeedAndHeading() | adsb1090View.isVelocityOverGround();
+    }
+
+    private void updateAircraftStateList() {
         // if necessary, update the aircraft state list
         if (aircraftStateList.size() == 0) {
             if (aircraftState.getUpdateTimestamp() != Instant.MIN) {
@@ -325,7 +395,6 @@ class Aircraft {
                 aircraftStateList.add(AircraftState.copy(aircraftState));
             }
         }
-
     }
 
     private void updateTransponderMessage(TransponderMessage transponderMessage) {
@@ -375,13 +444,18 @@ class Aircraft {
     }
 
     private void updateAirbornePosition(AirbornePosition airbornePosition, Instant timestamp) {
-        aircraftPosition.updateAirborne(airbornePosition.getCompactPositionReport(), timestamp);
+        CompactPositionReport cpr = airbornePosition.getCompactPositionReport();
+        updateAirbornePosition(cpr.getCprFormat(), cpr.getEncodedLatitude(), cpr.getEncodedLongitude(), airbornePosition.isAltitudeAvailable(), airbornePosition.getAltitude(), timestamp);
+    }
+
+    private void updateAirbornePosition(boolean cprFormat, int encodedLatitude, int encodedLongitude, boolean altitudeAvailable, int altitude, Instant timestamp) {
+        aircraftPosition.updateAirborne(cprFormat, encodedLatitude, encodedLongitude, timestamp);
 
         if (aircraftPosition.getPosition() != null) {
-            aircraftState.setPosition(aircraftPosition);
+            aircraftState.setPosition(aircraftPosition, receiverGeodesy);
 
-            if (airbornePosition.isAltitudeAvailable()) {
-                aircraftState.setAltitude(airbornePosition.getAltitude(), timestamp);
+            if (altitudeAvailable) {
+                aircraftState.setAltitude(altitude, timestamp);
             }
         }
     }
@@ -395,36 +469,32 @@ class Aircraft {
     }
 
     private void updateAirspeedAndHeading(AirspeedAndHeading airspeedAndHeading, Instant timestamp) {
-        if (airspeedAndHeading.isAirspeedAvailable()) {
-            aircraftState.setAirspeed(airspeedAndHeading.getAirspeed(), timestamp);
-        }
-        if (airspeedAndHeading.isHeadingAvailable()) {
-            aircraftState.setHeading(airspeedAndHeading.getHeading(), timestamp);
-        }
-        if (airspeedAndHeading.isVerticalRateAvailable()) {
-            int temp = airspeedAndHeading.getVerticalRate();
-            if (airspeedAndHeading.isVerticalRateNegative()) {
-                temp *= -1;
-            }
-            aircraftState.setVerticalRate(temp, timestamp);
+        updateAirspeedAndHeading(airspeedAndHeading.isAirspeedAvailable(), airspeedAndHeading.getAirspeed(), airspeedAndHeading.isHeadingAvailable(), airspeedAndHeading.getHeading(), timestamp);
+        updateVerticalRate(airspeedAndHeading.isVerticalRateAvailable(), airspeedAndHeading.isVerticalRateNegative(), airspeedAndHeading.getVerticalRate(), timestamp);
+        updateGeometricHeightDifference(airspeedAndHeading.isGeometricHeightDifferenceAvailable(), airspeedAndHeading.isGeometricHeightBelowBaroAltitude(), airspeedAndHeading.getGeometricHeightDifference(), timestamp);
+    }
+
+    private void updateVelocityOverGround(VelocityOverGround velocityOverGround, Instant timestamp) {
+        updateGroundVelocity(velocityOverGround.isEastWestVelocityAvailable() & velocityOverGround.isNorthSouthVelocityAvailable(), velocityOverGround.isWestVelocity(), velocityOverGround.getEastWestVelocity(), velocityOverGround.isSouthVelocity(), velocityOverGround.getNorthSouthVelocity(), timestamp);
+        updateVerticalRate(velocityOverGround.isVerticalRateAvailable(), velocityOverGround.isVerticalRateNegative(), velocityOverGround.getVerticalRate(), timestamp);
+        updateGeometricHeightDifference(velocityOverGround.isGeometricHeightDifferenceAvailable(), velocityOverGround.isGeometricHeightBelowBaroAltitude(), velocityOverGround.getGeometricHeightDifference(), timestamp);
+    }
+
+    private void updateAirspeedAndHeading(boolean airspeedAvailable, int airspeed, boolean headingAvailable, double heading, Instant timestamp) {
+        if (airspeedAvailable) {
+            aircraftState.setAirspeed(airspeed, timestamp);
         }
-        if (airspeedAndHeading.isGeometricHeightDifferenceAvailable()) {
-            int temp = airspeedAndHeading.getGeometricHeightDifference();
-            if (airspeedAndHeading.isGeometricHeightBelowBaroAltitude()) {
-                temp *= -1;
-            }
-            aircraftState.setGeometricHeightDifference(temp, timestamp);
+        if (headingAvailable) {
+            aircraftState.setHeading(heading, timestamp);
         }
     }
 
-    private void updateVelocityOverGround(VelocityOverGround velocityOverGround, Instant timestamp) {
-        if (velocityOverGround.isEastWestVelocityAvailable() & velocityOverGround.isNorthSouthVelocityAvailable()) {
-            int eastWestVelocity = velocityOverGround.getEastWestVelocity();
-            if (velocityOverGround.isWestVelocity()) {
+    private void updateGroundVelocity(boolean velocityAvailable, boolean westVelocity, int eastWestVelocity, boolean southVelocity, int northSouthVelocity, Instant timestamp) {
+        if (velocityAvailable) {
+            if (westVelocity) {
                 eastWestVelocity *= -1;
             }
-            int northSouthVelocity = velocityOverGround.getNorthSouthVelocity();
-            if (velocityOverGround.isSouthVelocity()) {
+            if (southVelocity) {
                 northSouthVelocity *= -1;
             }
 
@@ -436,19 +506,23 @@ class Aircraft {
 
             aircraftState.setGroundVelocity(groundTrack, groundSpeed, timestamp);
         }
-        if (velocityOverGround.isVerticalRateAvailable()) {
-            int temp = velocityOverGround.getVerticalRate();
-            if (velocityOverGround.isVerticalRateNegative()) {
-                temp *= -1;
+    }
+
+    private void updateVerticalRate(boolean verticalRateAvailable, boolean verticalRateNegative, int verticalRate, Instant timestamp) {
+        if (verticalRateAvailable) {
+            if (verticalRateNegative) {
+                verticalRate *= -1;
             }
-            aircraftState.setVerticalRate(temp, timestamp);
+            aircraftState.setVerticalRate(verticalRate, timestamp);
         }
-        if (velocityOverGround.isGeometricHeightDifferenceAvailable()) {
-            int temp = velocityOverGround.getGeometricHeightDifference();
-            if (velocityOverGround.isGeometricHeightBelowBaroAltitude()) {
-                temp *= -1;
+    }
+
+    private void updateGeometricHeightDifference(boolean differenceAvailable, boolean belowBaroAltitude, int difference, Instant timestamp) {
+        if (differenceAvailable) {
+            if (belowBaroAltitude) {
+                difference *= -1;
             }
-            aircraftState.setGeometricHeightDifference(temp, timestamp);
+            aircraftState.setGeometricHeightDifference(difference, timestamp);
         }
     }
 
@@ -494,7 +568,7 @@ class Aircraft {
         aircraftPosition.updateSurface(surfacePosition.getCompactPositionReport(), timestamp);
 
         if (aircraftPosition.getPosition() != null) {
-            aircraftState.setPosition(aircraftPosition);
+            aircraftState.setPosition(aircraftPosition, receiverGeodesy);
         }
     }
 
@@ -0,0 +1,138 @@
+package aircraftsurveillance;
+
+/**
+ * Map from a 24-bit ICAO address to the aircraft being tracked with that address.
+ * Addresses are stored as primitive ints in an open addressing table with linear probing, so a lookup is a hash and
+ * usually a single probe, without boxing the address.  Removal shifts the following entries back instead of leaving
+ * a tombstone, so the table does not degrade as tracks come and go.
+ */
+class AircraftMap {
+
+    private static final int EMPTY = -1;  // never a valid 24-bit address
+    private static final int MIN_BITS = 6;
+
+    private int bits;
+    private int mask;
+    private int[] addresses;
+    private Aircraft[] aircraft;
+    private int size = 0;
+
+    public AircraftMap() {
+        allocate(MIN_BITS);
+    }
+
+    private void allocate(int bits) {
+        this.bits = bits;
+        mask = (1 << bits) - 1;
+        addresses = new int[1 << bits];
+        aircraft = new Aircraft[1 << bits];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = EMPTY;
+        }
+    }
+
+    private int slot(int address) {
+        // spread the address over the table with a multiplicative hash
+        return (address * 0x9E3779B9) >>> (32 - bits);
+    }
+
+    /**
+     * @return number of aircraft in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param address 24-bit ICAO address
+     * @return the aircraft with the address or null if it is not in the map
+     */
+    public Aircraft get(int address) {
+        int i = slot(address);
+        while (addresses[i] != EMPTY) {
+            if (addresses[i] == address) {
+                return aircraft[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Adds an aircraft to the map, replacing any aircraft with the same address.
+     *
+     * @param address  24-bit ICAO address
+     * @param aircraft aircraft to add
+     */
+    public void put(int address, Aircraft aircraft) {
+        if ((size + 1) * 2 > addresses.length) {
+            resize();
+        }
+
+        int i = slot(address);
+        while (addresses[i] != EMPTY) {
+            if (addresses[i] == address) {
+                this.aircraft[i] = aircraft;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        addresses[i] = address;
+        this.aircraft[i] = aircraft;
+        size++;
+    }
+
+    /**
+     * @param address 24-bit ICAO address
+     * @return the aircraft that was removed or null if the address was not in the map
+     */
+    public Aircraft remove(int address) {
+        int i = slot(address);
+        while (addresses[i] != address) {
+            if (addresses[i] == EMPTY) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+        Aircraft removed = aircraft[i];
+        size--;
+
+        // shift back any entry in the same probe run that would no longer be reachable across the hole at i
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (addresses[j] == EMPTY) {
+                break;
+            }
+            int k = slot(addresses[j]);
+            boolean reachable;
+            if (i <= j) {
+                reachable = (k > i) & (k <= j);
+            } else {
+                reachable = (k > i) | (k <= j);
+            }
+            if (!reachable) {
+                addresses[i] = addresses[j];
+                aircraft[i] = aircraft[j];
+                i = j;
+            }
+        }
+        addresses[i] = EMPTY;
+        aircraft[i] = null;
+
+        return removed;
+    }
+
+    private void resize() {
+        int[] oldAddresses = addresses;
+        Aircraft[] oldAircraft = aircraft;
+        allocate(bits + 1);
+        size = 0;
+        for (int i = 0; i < oldAddresses.length; i++) {
+            if (oldAddresses[i] != EMPTY) {
+                put(oldAddresses[i], oldAircraft[i]);
+            }
+        }
+    }
+
+}
@@ -12,11 +12,21 @@ class AircraftPosition {
     private boolean airborne = false;
     private boolean surface = false;
 
-    private CompactPositionReport previousAirborneCpr = null;
+    // the previous airborne report is kept as its fields, so a report read from a frame view is not copied to an object
+    private boolean previousAirborneCprAvailable = false;
+    private boolean previousAirborneCprFormat = false;
+    private int previousAirborneEncodedLatitude = 0;
+    private int previousAirborneEncodedLongitude = 0;
     private Instant previousAirborneTimestamp = Instant.MIN;
 
     private Position receiverPosition = null;
 
+    private Geodesy geodesy = Geodesy.VINCENTY;
+
+    private final boolean localDecoding;
+    private final double localReceiverRange;
+    private boolean provisional = false;
+
     private CompactPositionReport previousSurfaceCpr = null;
     private Instant previousSurfaceTimestamp = Instant.MIN;
 
@@ -24,8 +34,21 @@ class AircraftPosition {
     private static final int MAX_TRACK_SPEED = 1000;  // maximum speed in knots
     private static final int MAX_RECEIVER_DISTANCE = 350;  // maximum realistic reception distance in nautical miles
     private static final int MAX_PREVIOUS_POSITION_DISTANCE = 250;  // maximum distance from previous position in nautical miles
+    private static final int UNAMBIGUOUS_RECEIVER_RANGE = 180;  // half a CPR zone in nautical miles, the range within which a position decoded against the receiver is unique
+    private static final Duration LOCAL_REFERENCE_AGE_LIMIT = Duration.ofSeconds(30);  // maximum age of a position used to decode the next one
 
     public AircraftPosition() {
+        this(false, 0);
+    }
+
+    /**
+     * @param localDecoding true to decode airborne positions from single reports, see updateAirborneLocal()
+     * @param receiverRange reception range of the receivers in nautical miles, a first position is only decoded against
+     *                      the receiver if the range is less than UNAMBIGUOUS_RECEIVER_RANGE
+     */
+    public AircraftPosition(boolean localDecoding, double receiverRange) {
+        this.localDecoding = localDecoding;
+        localReceiverRange = receiverRange;
     }
 
     public Position getPosition() {
@@ -57,57 +80,174 @@ class AircraftPosition {
             return;
         }
 
-        Duration airborneAge = Duration.between(previousAirborneTimestamp, cprTimestamp);
+        updateAirborne(cpr.getCprFormat(), cpr.getEncodedLatitude(), cpr.getEncodedLongitude(), cprTimestamp);
+    }
 
-        if ((previousAirborneCpr != null) & (airborneAge.compareTo(AGE_LIMIT) < 0)) {
+    /**
+     * Updates the position from an airborne report given as its fields.
+     *
+     * @param cprFormat        true for an odd report, false for an even report
+     * @param encodedLatitude  encoded latitude of the report
+     * @param encodedLongitude encoded longitude of the report
+     * @param cprTimestamp     time the report was received
+     */
+    public void updateAirborne(boolean cprFormat, int encodedLatitude, int encodedLongitude, Instant cprTimestamp) {
+        if (localDecoding) {
+            updateAirborneLocal(cprFormat, encodedLatitude, encodedLongitude, cprTimestamp);
+        } else {
+            updateAirborneGlobal(cprFormat, encodedLatitude, encodedLongitude, cprTimestamp, true);
+        }
+
+        previousAirborneCprAvailable = true;
+        previousAirborneCprFormat = cprFormat;
+        previousAirborneEncodedLatitude = encodedLatitude;
+        previousAirborneEncodedLongitude = encodedLongitude;
+        previousAirborneTimestamp = cprTimestamp;
+    }
+
+    /**
+     * Decodes the position from an even/odd pair of reports.
+     *
+     * @param checkPrevious false to accept a position far from the current one, which is then replaced
+     * @return true if the position was updated
+     */
+    private boolean updateAirborneGlobal(boolean cprFormat, int encodedLatitude, int encodedLongitude, Instant cprTimestamp, boolean checkPrevious) {
+        if (previousAirborneCprAvailable & isWithin(previousAirborneTimestamp, cprTimestamp, AGE_LIMIT)) {
             Position tempPosition = null;
-            if (previousAirborneCpr.isEvenPosition() & cpr.isOddPosition()) {
-                tempPosition = CPRDecoder.decodeGlobalAirbornePositionOdd(previousAirborneCpr, cpr);
-            } else if (previousAirborneCpr.isOddPosition() & cpr.isEvenPosition()) {
-                tempPosition = CPRDecoder.decodeGlobalAirbornePositionEven(cpr, previousAirborneCpr);
+            if (!previousAirborneCprFormat & cprFormat) {
+                tempPosition = CPRDecoder.decodeGlobalAirbornePosition(previousAirborneEncodedLatitude, previousAirborneEncodedLongitude, encodedLatitude, encodedLongitude, true);
+            } else if (previousAirborneCprFormat & !cprFormat) {
+                tempPosition = CPRDecoder.decodeGlobalAirbornePosition(encodedLatitude, encodedLongitude, previousAirborneEncodedLatitude, previousAirborneEncodedLongitude, false);
             }
             if (tempPosition != null) {
-                double receiverDistance = 0;
-                double previousDistance = 0;
-
-                if (receiverPosition != null) {
-                    try {
-                        receiverDistance = Position.distance(receiverPosition, tempPosition) * 0.000539957;  // convert meters to nautical miles
-                    } catch (Position.IterationLimitExceeded iterationLimitExceeded) {
-                        iterationLimitExceeded.printStackTrace();
-                        receiverDistance = Double.MAX_VALUE;
-                    }
+                if (isPlausible(tempPosition, cprTimestamp, checkPrevious)) {
+                    position = tempPosition;
+                    positionTimestamp = cprTimestamp;
+                    airborne = true;
+                    surface = false;
+                    return true;
                 }
+            }
+        }
+        return false;
+    }
 
-                if (position != null) {
-                    try {
-                        previousDistance = Position.distance(position, tempPosition) * 0.000539957;  // convert meters to nautical miles
-                    } catch (Position.IterationLimitExceeded iterationLimitExceeded) {
-                        iterationLimitExceeded.printStackTrace();
-                        previousDistance = Double.MAX_VALUE;
-                    }
-
-                }
+    /**
+     * Decodes the position from a single report against a reference position.  If the receiver range is within half a
+     * zone, the first position of a track is decoded against the receiver.  It is provisional, a damaged report or an
+     * aircraft beyond the stated range decodes to a wrong position, so it is confirmed or replaced by the first
+     * position decoded from an even/odd pair.  Later positions are decoded against the last position while it is
+     * recent enough to be within half a zone of the aircraft, so an even/odd pair is only needed to start a track.
+     */
+    private void updateAirborneLocal(boolean cprFormat, int encodedLatitude, int encodedLongitude, Instant cprTimestamp) {
+        if ((position == null) | provisional) {
+            // an even/odd pair confirms or corrects a provisional position
+            if (updateAirborneGlobal(cprFormat, encodedLatitude, encodedLongitude, cprTimestamp, false)) {
+                provisional = false;
+                return;
+            }
+        }
 
-                double maxPreviousDistance = MAX_PREVIOUS_POSITION_DISTANCE;
-                if (position != null & positionTimestamp != Instant.MIN) {
-                    // reduce the maximum previous distance to a more realistic value
-                    Duration positionAge = Duration.between(positionTimestamp, cprTimestamp);
-                    double positionSeconds = positionAge.getSeconds() + 10; // 10 seconds extra to prevent false rejections
-                    maxPreviousDistance = (positionSeconds / 3600.0) * MAX_TRACK_SPEED;
-                }
+        if ((position != null) && isWithin(positionTimestamp, cprTimestamp, LOCAL_REFERENCE_AGE_LIMIT)) {
+            Position tempPosition = CPRDecoder.decodeLocalAirbornePosition(cprFormat, encodedLatitude, encodedLongitude, position);
+            if ((tempPosition != null) && isPlausible(tempPosition, cprTimestamp, true)) {
+                position = tempPosition;
+                positionTimestamp = cprTimestamp;
+                airborne = true;
+                surface = false;
+            }
+            return;
+        }
 
-                if (receiverDistance < MAX_RECEIVER_DISTANCE & previousDistance < maxPreviousDistance) {
+        if (position == null) {
+            if ((receiverPosition != null) & (localReceiverRange < UNAMBIGUOUS_RECEIVER_RANGE)) {
+                Position tempPosition = CPRDecoder.decodeLocalAirbornePosition(cprFormat, encodedLatitude, encodedLongitude, receiverPosition);
+                if ((tempPosition != null) && (receiverDistance(tempPosition) <= localReceiverRange)) {
                     position = tempPosition;
                     positionTimestamp = cprTimestamp;
                     airborne = true;
                     surface = false;
+                    provisional = true;
                 }
             }
+        } else {
+            // the last position is too old to decode against, start over from an even/odd pair
+            updateAirborneGlobal(cprFormat, encodedLatitude, encodedLongitude, cprTimestamp, true);
         }
+    }
 
-        previousAirborneCpr = cpr;
-        previousAirborneTimestamp = cprTimestamp;
+    private double receiverDistance(Position tempPosition) {
+        try {
+            return geodesy.distance(receiverPosition, tempPosition) * 0.000539957;  // convert meters to nautical miles
+        } catch (Position.IterationLimitExceeded iterationLimitExceeded) {
+            iterationLimitExceeded.printStackTrace();
+            return Double.MAX_VALUE;
+        }
+    }
+
+    private boolean isPlausible(Position tempPosition, Instant cprTimestamp, boolean checkPrevious) {
+        double receiverDistance = 0;
+        double previousDistance = 0;
+
+        if (receiverPosition != null) {
+            receiverDistance = receiverDistance(tempPosition);
+        }
+
+        if ((position != null) & checkPrevious) {
+            try {
+                previousDistance = geodesy.distance(position, tempPosition) * 0.000539957;  // convert meters to nautical miles
+            } catch (Position.IterationLimitExceeded iterationLimitExceeded) {
+                iterationLimitExceeded.printStackTrace();
+                previousDistance = Double.MAX_VALUE;
+            }
+
+        }
+
+        double maxPreviousDistance = MAX_PREVIOUS_POSITION_DISTANCE;
+        if ((position != null) & checkPrevious & (positionTimestamp != Instant.MIN)) {
+            // reduce the maximum previous distance to a more realistic value
+            double positionSeconds = secondsBetween(positionTimestamp, cprTimestamp) + 10; // 10 seconds extra to prevent false rejections
+            maxPreviousDistance = (positionSeconds / 3600.0) * MAX_TRACK_SPEED;
+        }
+
+        return receiverDistance < MAX_RECEIVER_DISTANCE & previousDistance < maxPreviousDistance;
+    }
+
+    /**
+     * @return whole seconds from one instant to another, rounded down like Duration.getSeconds()
+     */
+    private static long secondsBetween(Instant from, Instant to) {
+        long seconds = to.getEpochSecond() - from.getEpochSecond();
+        if (to.getNano() < from.getNano()) {
+            seconds--;
+        }
+        return seconds;
+    }
+
+    /**
+     * The airborne checks run for every report, so the age is compared field by field instead of through a Duration.
+     *
+     * @return true if less than limit passed from one instant to another, as Duration.between(from, to).compareTo(limit) < 0
+     */
+    private static boolean isWithin(Instant from, Instant to, Duration limit) {
+        long seconds = secondsBetween(from, to);
+        int nanos = Math.floorMod(to.getNano() - from.getNano(), 1000000000);
+        return (seconds < limit.getSeconds()) | ((seconds == limit.getSeconds()) & (nanos < limit.getNano()));
+    }
+
+    /**
+     * @return true if the position was decoded from a single report against the receiver and has not yet been
+     * confirmed by an even/odd pair
+     */
+    public boolean isProvisional() {
+        return provisional;
+    }
+
+    /**
+     * @param geodesy method used for the distances that decide whether a decoded position is plausible
+     */
+    public void setGeodesy(Geodesy geodesy) {
+        this.geodesy = geodesy;
     }
 
     public void setReceiverPosition(Position position) {
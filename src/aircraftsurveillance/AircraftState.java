@@ -47,6 +47,14 @@ public class AircraftState {
     private Instant positionTimestamp = Instant.MIN;
 
     public void setPosition(AircraftPosition aircraftPosition) {
+        setPosition(aircraftPosition, Geodesy.VINCENTY);
+    }
+
+    /**
+     * @param aircraftPosition position to copy
+     * @param geodesy          method used for the distance and bearing from the receiver
+     */
+    public void setPosition(AircraftPosition aircraftPosition, Geodesy geodesy) {
         if (aircraftPosition.getPosition() != null) {
             latitude = aircraftPosition.getPosition().getLatitude();
             longitude = aircraftPosition.getPosition().getLongitude();
@@ -54,8 +62,8 @@ public class AircraftState {
 
             if (aircraftPosition.getReceiverPosition() != null) {
                 try {
-                    distanceFromReceiver = Position.distance(aircraftPosition.getReceiverPosition(), aircraftPosition.getPosition()) * 0.000539957;  // convert meters to nautical miles
-                    bearingFromReceiver = Position.course(aircraftPosition.getReceiverPosition(), aircraftPosition.getPosition());
+                    distanceFromReceiver = geodesy.distance(aircraftPosition.getReceiverPosition(), aircraftPosition.getPosition()) * 0.000539957;  // convert meters to nautical miles
+                    bearingFromReceiver = geodesy.course(aircraftPosition.getReceiverPosition(), aircraftPosition.getPosition());
                 } catch (Position.IterationLimitExceeded iterationLimitExceeded) {
                     distanceFromReceiver = 0;
                     bearingFromReceiver = 0;
@@ -73,25 +73,34 @@ public abstract class AircraftSurveillanceMessage {
             throw new IllegalArgumentException("(length + startBit) > (data.length * 8)");
         }
 
-        // create an int array where each entry represents a single bit
-        int[] bits = new int[data.length * 8];
-        for (int i = 0; i < data.length; i++) {
-            for (int j = 0; j < 8; j++) {
-                bits[(i * 8) + j] = (data[i] >>> (7 - j)) & 1;
-            }
+        // gather the bytes holding the requested bits into a single word, at most 5 bytes for 31 bits
+        int firstByte = startBit >>> 3;
+        int lastByte = (startBit + length - 1) >>> 3;
+        long bits = 0;
+        for (int i = firstByte; i <= lastByte; i++) {
+            bits = (bits << 8) | (data[i] & 0xFF);
         }
 
-        // extractInt the bits needed for the return value
-        int[] returnBits = new int[length];
-        System.arraycopy(bits, startBit, returnBits, 0, returnBits.length);
+        // shift and mask the word to leave only the requested bits
+        int shift = ((lastByte + 1) * 8) - (startBit + length);
+        return (int) (bits >>> shift) & ((1 << length) - 1);
+    }
 
-        // convert the return bits into an integer
-        int returnInt = 0;
-        for (int i = 0; i < returnBits.length; i++) {
-            returnInt |= (returnBits[i] << ((returnBits.length - 1) - i));
+    /**
+     * Packs a series of bytes into a long, the first byte being the most significant.
+     * Useful for holding a binary message in one or two words so fields can be extracted with a shift and a mask.
+     *
+     * @param data      int array representing a series of bytes
+     * @param startByte zero-based index of the first byte to pack
+     * @param length    number of bytes to pack, not to exceed 8
+     * @return the bytes right aligned in a long
+     */
+    protected static long toLong(int[] data, int startByte, int length) {
+        long bits = 0;
+        for (int i = startByte; i < startByte + length; i++) {
+            bits = (bits << 8) | (data[i] & 0xFF);
         }
-
-        return returnInt;
+        return bits;
     }
 
     /**
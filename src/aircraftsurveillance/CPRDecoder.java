@@ -2,12 +2,18 @@ package aircraftsurveillance;
 
 import aircraftsurveillance.transponder.adsb1090.CompactPositionReport;
 
-import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.List;
-
+/**
+ * Decodes compact position reports into positions.  The airborne global decode does its zone arithmetic on the 17-bit
+ * encoded values as integers, only the final latitude and longitude are computed in floating point, and NL is found by
+ * a binary search of the latitude boundaries.  Both give exactly the same results as the floating-point formulas.
+ */
 class CPRDecoder {
 
+    private static final int CPR_BITS = 17;
+    private static final int CPR_HALF = 1 << (CPR_BITS - 1);  // 0.5 in 17-bit fixed point
+    private static final double CPR_SCALE = 1 << CPR_BITS;
+    private static final long NOT_DECODED = Long.MIN_VALUE;  // returned by decodeGlobalAirborneZones()
+
     private static final double[] nlTable = new double[]{
             10.4704713000, 14.8281743687, 18.1862635707, 21.0293949260, 23.5450448656, 25.8292470706, 27.9389871012,
             29.9113568573, 31.7720970768, 33.5399343630, 35.2289959780, 36.8502510759, 38.4124189241, 39.9225668433,
@@ -21,67 +27,14 @@ class CPRDecoder {
     };
 
     public static Position decodeGlobalAirbornePositionEven(CompactPositionReport cprEven, CompactPositionReport cprOdd) {
-        if (cprEven == null) {
-            return null;
-        }
-        if (cprOdd == null) {
-            return null;
-        }
-
-        if (!cprEven.isEvenPosition()) {
-            return null;
-        }
-        if (!cprOdd.isOddPosition()) {
-            return null;
-        }
-
-        if (cprEven.getEncodedLatitude() == 0 | cprEven.getEncodedLongitude() == 0) {
-            return null;
-        }
-        if (cprOdd.getEncodedLatitude() == 0 | cprOdd.getEncodedLatitude() == 0) {
-            return null;
-        }
-
-        int yz0 = cprEven.getEncodedLatitude();
-        int xz0 = cprEven.getEncodedLongitude();
-        int yz1 = cprOdd.getEncodedLatitude();
-        int xz1 = cprOdd.getEncodedLongitude();
-
-        double j = Math.floor((((59 * yz0) - (60 * yz1)) / Math.pow(2, 17)) + 0.5);
-        double dlat0 = 360.0 / 60.0;
-        double dlat1 = 360.0 / 59.0;
-
-        double rlat0 = dlat0 * (mod(j, 60) + (yz0 / Math.pow(2, 17)));
-        double rlat1 = dlat1 * (mod(j, 59) + (yz1 / Math.pow(2, 17)));
-
-        if (nl(rlat0) != nl(rlat1)) {
-            return null;
-        }
-        int nl = nl(rlat1);
-
-        double m = Math.floor(((((nl - 1) * xz0) - (nl * xz1)) / Math.pow(2, 17)) + 0.5);
-
-        double dlon0 = 360.0;
-        if (nl > 0) {
-            dlon0 /= nl;
-        }
-
-        double rlon0 = dlon0 * (mod(m, nl) + (xz0 / Math.pow(2, 17)));
-
-        rlat0 = mod(rlat0 + 180.0, 360.0) - 180.0;
-        rlon0 = mod(rlon0 + 180.0, 360.0) - 180.0;
-
-        if (Double.isNaN(rlat0)) {
-            return null;
-        }
-        if (Double.isNaN(rlon0)) {
-            return null;
-        }
-
-        return new Position(rlat0, rlon0);
+        return decodeGlobalAirbornePosition(cprEven, cprOdd, false);
     }
 
     public static Position decodeGlobalAirbornePositionOdd(CompactPositionReport cprEven, CompactPositionReport cprOdd) {
+        return decodeGlobalAirbornePosition(cprEven, cprOdd, true);
+    }
+
+    private static Position decodeGlobalAirbornePosition(CompactPositionReport cprEven, CompactPositionReport cprOdd, boolean odd) {
         if (cprEven == null) {
             return null;
         }
@@ -96,50 +49,123 @@ class CPRDecoder {
             return null;
         }
 
-        if (cprEven.getEncodedLatitude() == 0 | cprEven.getEncodedLongitude() == 0) {
-            return null;
-        }
-        if (cprOdd.getEncodedLatitude() == 0 | cprOdd.getEncodedLatitude() == 0) {
-            return null;
-        }
-
-        int yz0 = cprEven.getEncodedLatitude();
-        int xz0 = cprEven.getEncodedLongitude();
-        int yz1 = cprOdd.getEncodedLatitude();
-        int xz1 = cprOdd.getEncodedLongitude();
-
-        double j = Math.floor((((59 * yz0) - (60 * yz1)) / Math.pow(2, 17)) + 0.5);
-        double dlat0 = 360.0 / 60.0;
-        double dlat1 = 360.0 / 59.0;
+        return decodeGlobalAirbornePosition(cprEven.getEncodedLatitude(), cprEven.getEncodedLongitude(), cprOdd.getEncodedLatitude(), cprOdd.getEncodedLongitude(), odd);
+    }
 
-        double rlat0 = dlat0 * (mod(j, 60) + (yz0 / Math.pow(2, 17)));
-        double rlat1 = dlat1 * (mod(j, 59) + (yz1 / Math.pow(2, 17)));
+    /**
+     * Decodes an even/odd pair of airborne reports given as their encoded values, for callers that keep the reports
+     * in fields instead of CompactPositionReport objects.
+     *
+     * @param yz0 encoded latitude of the even report
+     * @param xz0 encoded longitude of the even report
+     * @param yz1 encoded latitude of the odd report
+     * @param xz1 encoded longitude of the odd report
+     * @param odd true to decode the position of the odd report, false for the even report
+     * @return the position or null if the pair can not be decoded
+     */
+    public static Position decodeGlobalAirbornePosition(int yz0, int xz0, int yz1, int xz1, boolean odd) {
+        long zones = decodeGlobalAirborneZones(yz0, xz0, yz1, xz1, odd);
+        if (zones == NOT_DECODED) {
+            return null;
+        }
+        return new Position(airborneLatitude(zones, yz0, yz1, odd), airborneLongitude(zones, xz0, xz1, odd));
+    }
 
-        if (nl(rlat0) != nl(rlat1)) {
-            return null;
+    /**
+     * Decodes many even/odd pairs of airborne reports at once, for bulk processing of archived data.  The pairs are
+     * given as parallel arrays and the positions are written to parallel arrays, so no object is created or called
+     * per pair.  Each position is exactly the one the single pair methods return.
+     *
+     * @param evenLatitudes  encoded latitudes of the even reports
+     * @param evenLongitudes encoded longitudes of the even reports
+     * @param oddLatitudes   encoded latitudes of the odd reports
+     * @param oddLongitudes  encoded longitudes of the odd reports
+     * @param cprFormats     format of the most recent report of each pair, true for odd, whose position is decoded
+     * @param latitudes      decoded latitudes in degrees, NaN where the pair can not be decoded
+     * @param longitudes     decoded longitudes in degrees, NaN where the pair can not be decoded
+     * @param count          number of pairs
+     * @return number of pairs decoded
+     */
+    public static int decodeGlobalAirbornePositions(int[] evenLatitudes, int[] evenLongitudes, int[] oddLatitudes, int[] oddLongitudes, boolean[] cprFormats, double[] latitudes, double[] longitudes, int count) {
+        int decoded = 0;
+        for (int i = 0; i < count; i++) {
+            boolean odd = cprFormats[i];
+            long zones = decodeGlobalAirborneZones(evenLatitudes[i], evenLongitudes[i], oddLatitudes[i], oddLongitudes[i], odd);
+            if (zones == NOT_DECODED) {
+                latitudes[i] = Double.NaN;
+                longitudes[i] = Double.NaN;
+            } else {
+                latitudes[i] = airborneLatitude(zones, evenLatitudes[i], oddLatitudes[i], odd);
+                longitudes[i] = airborneLongitude(zones, evenLongitudes[i], oddLongitudes[i], odd);
+                decoded++;
+            }
         }
-        int nl = nl(rlat1);
+        return decoded;
+    }
 
-        double m = Math.floor(((((nl - 1) * xz0) - (nl * xz1)) / Math.pow(2, 17)) + 0.5);
+    /**
+     * Finds the latitude and longitude zones of one even/odd pair of airborne reports.  Only integer arithmetic and
+     * the NL lookup are done here, airborneLatitude() and airborneLongitude() turn the result into degrees.
+     *
+     * @param yz0 encoded latitude of the even report
+     * @param xz0 encoded longitude of the even report
+     * @param yz1 encoded latitude of the odd report
+     * @param xz1 encoded longitude of the odd report
+     * @param odd true to decode the position of the odd report, false for the even report
+     * @return the latitude zone index in the upper 32 bits, the number of longitude zones in bits 16-31 and the
+     * longitude zone in bits 0-15, or NOT_DECODED if the pair can not be decoded
+     */
+    private static long decodeGlobalAirborneZones(int yz0, int xz0, int yz1, int xz1, boolean odd) {
+        // the same reports are rejected as by the previous decoder, which does not check the odd longitude
+        if ((yz0 == 0) | (xz0 == 0) | (yz1 == 0)) {
+            return NOT_DECODED;
+        }
+
+        // latitude zone index, floor(x / 2^17 + 0.5) computed as (x + 2^16) >> 17
+        int j = ((59 * yz0) - (60 * yz1) + CPR_HALF) >> CPR_BITS;
+        double rlat0 = (360.0 / 60.0) * zoneFraction(Math.floorMod(j, 60), yz0);
+        double rlat1 = (360.0 / 59.0) * zoneFraction(Math.floorMod(j, 59), yz1);
 
-        double dlon1 = 360.0;
-        if (nl - 1 > 0) {
-            dlon1 /= (nl - 1);
+        int nl = nl(rlat1);
+        if (nl(rlat0) != nl) {
+            return NOT_DECODED;
+        }
+        int zones = odd ? nl - 1 : nl;
+        if (zones == 0) {
+            // nl - 1 is 0 next to the poles, where the odd longitude can not be decoded
+            return NOT_DECODED;
         }
 
-        double rlon1 = dlon1 * (mod(m, nl - 1) + (xz1 / Math.pow(2, 17)));
+        // longitude zone index
+        int m = (((nl - 1) * xz0) - (nl * xz1) + CPR_HALF) >> CPR_BITS;
 
-        rlat1 = mod(rlat1 + 180.0, 360.0) - 180.0;
-        rlon1 = mod(rlon1 + 180.0, 360.0) - 180.0;
+        return ((long) j << 32) | (zones << 16) | Math.floorMod(m, zones);
+    }
 
-        if (Double.isNaN(rlat1)) {
-            return null;
-        }
-        if (Double.isNaN(rlon1)) {
-            return null;
-        }
+    /**
+     * @param zones result of decodeGlobalAirborneZones()
+     * @return latitude in degrees
+     */
+    private static double airborneLatitude(long zones, int yz0, int yz1, boolean odd) {
+        int j = (int) (zones >> 32);
+        double rlat;
+        if (odd) {
+            rlat = (360.0 / 59.0) * zoneFraction(Math.floorMod(j, 59), yz1);
+        } else {
+            rlat = (360.0 / 60.0) * zoneFraction(Math.floorMod(j, 60), yz0);
+        }
+        return mod(rlat + 180.0, 360.0) - 180.0;
+    }
 
-        return new Position(rlat1, rlon1);
+    /**
+     * @param zones result of decodeGlobalAirborneZones()
+     * @return longitude in degrees
+     */
+    private static double airborneLongitude(long zones, int xz0, int xz1, boolean odd) {
+        int count = (int) (zones >>> 16) & 0xFFFF;
+        int zone = (int) zones & 0xFFFF;
+        double rlon = (360.0 / count) * zoneFraction(zone, odd ? xz1 : xz0);
+        return mod(rlon + 180.0, 360.0) - 180.0;
     }
 
 
@@ -265,13 +291,24 @@ class CPRDecoder {
             return null;
         }
 
-        if (cpr.getEncodedLatitude() == 0 | cpr.getEncodedLongitude() == 0) {
+        return decodeLocalAirbornePosition(cpr.getCprFormat(), cpr.getEncodedLatitude(), cpr.getEncodedLongitude(), localPosition);
+    }
+
+    /**
+     * Decodes an airborne report given as its encoded values against a reference position.
+     *
+     * @param cprFormat     true for an odd report, false for an even report
+     * @param yz            encoded latitude
+     * @param xz            encoded longitude
+     * @param localPosition reference position within half a zone of the aircraft
+     * @return the position or null if the report can not be decoded
+     */
+    public static Position decodeLocalAirbornePosition(boolean cprFormat, int yz, int xz, Position localPosition) {
+        if (yz == 0 | xz == 0) {
             return null;
         }
 
-        int i = cpr.getCprFormat() ? 1 : 0;
-        int yz = cpr.getEncodedLatitude();
-        int xz = cpr.getEncodedLongitude();
+        int i = cprFormat ? 1 : 0;
 
         double latS = localPosition.getLatitude();
         double lonS = localPosition.getLongitude();
@@ -339,48 +376,106 @@ class CPRDecoder {
     }
 
 
+    /**
+     * @return number of longitude zones at a latitude, found by a binary search for the first boundary above it
+     */
     private static int nl(double latitude) {
-        for (int i = 0; i < 58; i++) {
-            if (latitude < nlTable[i])
-                return (59 - i);
+        int low = 0;
+        int high = nlTable.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (latitude < nlTable[middle]) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
         }
-        return 1;
+        // 1 above the last boundary, or for NaN
+        return 59 - low;
+    }
+
+    /**
+     * @return zone + encoded / 2^17, exact because both fit in the mantissa
+     */
+    private static double zoneFraction(int zone, int encoded) {
+        return ((zone << CPR_BITS) + encoded) / CPR_SCALE;
     }
 
     private static double mod(double x, double y) {
         return x - y * Math.floor(x / y);
     }
 
-    private static Position bestSurfacePosition(double rlat, double rlon, final Position localPosition) {
-        List<Position> list = new LinkedList<Position>();
-
-        // northern hemisphere
-        list.add(new Position(rlat, rlon));
-        list.add(new Position(rlat, rlon + 90.0));
-        list.add(new Position(rlat, rlon - 180.0));
-        list.add(new Position(rlat, rlon - 90.0));
-
-        // southern hemisphere
-        list.add(new Position(rlat - 90.0, rlon));
-        list.add(new Position(rlat - 90.0, rlon + 90.0));
-        list.add(new Position(rlat - 90.0, rlon - 180.0));
-        list.add(new Position(rlat - 90.0, rlon - 90.0));
-
-        // return the position closest to localPosition
-        list.sort(new Comparator<Position>() {
-            @Override
-            public int compare(Position o1, Position o2) {
-                try {
-                    double distance1 = Position.distance(localPosition, o1);
-                    double distance2 = Position.distance(localPosition, o2);
-                    return Double.compare(distance1, distance2);
-                } catch (Position.IterationLimitExceeded iterationLimitExceeded) {
-                }
-                return 0;
+    /**
+     * Picks the one of the eight candidate positions of a surface decode, four longitude quadrants in each
+     * hemisphere, that is closest to the local position.  The candidates are at least 90 degrees apart, so for a local
+     * position anywhere near the aircraft the spherical great circle distance picks the same one as the ellipsoidal
+     * distance, and unlike the iterative ellipsoidal solution it can not fail to converge.  The smallest great circle
+     * distance is the largest cosine of the central angle, and the sines and cosines of the candidates all follow
+     * from those of rlat and rlon, so the candidates are compared in a single pass without creating them.
+     *
+     * @return the closest candidate, the first one in case of a tie
+     */
+    private static Position bestSurfacePosition(double rlat, double rlon, Position localPosition) {
+        double latS = Math.toRadians(localPosition.getLatitude());
+        double sinLatS = Math.sin(latS);
+        double cosLatS = Math.cos(latS);
+
+        double lat = Math.toRadians(rlat);
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+
+        double dLon = Math.toRadians(rlon - localPosition.getLongitude());
+        double sinDLon = Math.sin(dLon);
+        double cosDLon = Math.cos(dLon);
+
+        double bestCosAngle = Double.NEGATIVE_INFINITY;
+        int best = 0;
+        for (int i = 0; i < 8; i++) {
+            // northern hemisphere rlat, southern hemisphere rlat - 90
+            double sinCandidateLat = (i < 4) ? sinLat : -cosLat;
+            double cosCandidateLat = (i < 4) ? cosLat : sinLat;
+
+            // rlon, rlon + 90, rlon - 180 and rlon - 90
+            double cosCandidateDLon;
+            switch (i & 3) {
+                case 0:
+                    cosCandidateDLon = cosDLon;
+                    break;
+                case 1:
+                    cosCandidateDLon = -sinDLon;
+                    break;
+                case 2:
+                    cosCandidateDLon = -cosDLon;
+                    break;
+                default:
+                    cosCandidateDLon = sinDLon;
+                    break;
             }
-        });
 
-        return list.get(0);
+            double cosAngle = (sinLatS * sinCandidateLat) + (cosLatS * cosCandidateLat * cosCandidateDLon);
+            if (cosAngle > bestCosAngle) {
+                bestCosAngle = cosAngle;
+                best = i;
+            }
+        }
+
+        double latitude = (best < 4) ? rlat : rlat - 90.0;
+        double longitude;
+        switch (best & 3) {
+            case 0:
+                longitude = rlon;
+                break;
+            case 1:
+                longitude = rlon + 90.0;
+                break;
+            case 2:
+                longitude = rlon - 180.0;
+                break;
+            default:
+                longitude = rlon - 90.0;
+                break;
+        }
+        return new Position(latitude, longitude);
     }
 
 }
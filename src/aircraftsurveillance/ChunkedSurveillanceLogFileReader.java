@@ -0,0 +1,168 @@
+package aircraftsurveillance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Reads a single large log file on several threads.  The file is split into fixed size byte ranges, each range is
+ * parsed by a MappedSurveillanceLogFileReader on a ForkJoinPool, and the messages of the ranges are returned in file
+ * order.  A line belongs to the range in which it starts, so the ranges need no coordination to align to line
+ * boundaries.  Only a bounded number of ranges are parsed ahead of the reader, which limits the memory used for
+ * decoded messages.  If the file name prefix is not known, each range detects the log format from its own first line.
+ */
+class ChunkedSurveillanceLogFileReader implements SurveillanceReader {
+
+    /**
+     * Default size of a range, large enough that the cost of a task is small compared to parsing the range.
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private final File file;
+    private final long fileSize;
+    private final long chunkSize;
+    private final int maxChunksInFlight;
+    private final ForkJoinPool pool;
+    private final FrameDecoder frameDecoder;
+
+    private long nextChunkStart = 0;
+    private final LinkedList<ForkJoinTask<Chunk>> chunkTasks = new LinkedList<ForkJoinTask<Chunk>>();
+    private List<AircraftSurveillanceMessage> messages = null;
+    private int messageIndex = 0;
+
+    /**
+     * Opens the log file, using DEFAULT_CHUNK_SIZE and the common pool.
+     *
+     * @param file         file to open
+     * @param frameDecoder decoder whose settings are copied for each range and that receives the counts of every range
+     * @throws IOException
+     */
+    public ChunkedSurveillanceLogFileReader(File file, FrameDecoder frameDecoder) throws IOException {
+        this(file, frameDecoder, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Opens the log file.
+     *
+     * @param file         file to open
+     * @param frameDecoder decoder whose settings are copied for each range and that receives the counts of every range
+     * @param pool         pool the ranges are parsed on
+     * @param chunkSize    size of a range in bytes
+     * @throws IOException
+     */
+    public ChunkedSurveillanceLogFileReader(File file, FrameDecoder frameDecoder, ForkJoinPool pool, long chunkSize) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunk size must be positive (chunk size == " + chunkSize + ")");
+        }
+        if (!file.isFile()) {
+            throw new IOException(file + " is not a file");
+        }
+        this.file = file;
+        this.fileSize = file.length();
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = 2 * pool.getParallelism();
+        this.pool = pool;
+        this.frameDecoder = frameDecoder;
+        submitChunks();
+    }
+
+    private void submitChunks() {
+        while ((chunkTasks.size() < maxChunksInFlight) & (nextChunkStart < fileSize)) {
+            final long start = nextChunkStart;
+            final long end = Math.min(start + chunkSize, fileSize);
+            nextChunkStart = end;
+
+            chunkTasks.add(pool.submit(new Callable<Chunk>() {
+                @Override
+                public Chunk call() throws IOException {
+                    return parseChunk(start, end);
+                }
+            }));
+        }
+    }
+
+    private Chunk parseChunk(long start, long end) throws IOException {
+        Chunk chunk = new Chunk();
+        chunk.frameDecoder = frameDecoder.copySettings();
+
+        MappedSurveillanceLogFileReader reader = new MappedSurveillanceLogFileReader(file, start, end, chunk.frameDecoder);
+        try {
+            AircraftSurveillanceMessage aircraftSurveillanceMessage;
+            while ((aircraftSurveillanceMessage = reader.read()) != null) {
+                chunk.messages.add(aircraftSurveillanceMessage);
+            }
+        } finally {
+            reader.close();
+        }
+        return chunk;
+    }
+
+    /**
+     * Reads the next aircraft surveillance message.
+     *
+     * @return the next AircraftSurveillanceMessage or null if no more messages are available
+     * @throws IOException
+     */
+    public AircraftSurveillanceMessage read() throws IOException {
+        while ((messages == null) || (messageIndex == messages.size())) {
+            if (chunkTasks.isEmpty()) {
+                return null;
+            }
+
+            Chunk chunk = takeChunk(chunkTasks.removeFirst());
+            frameDecoder.addCounts(chunk.frameDecoder);
+            messages = chunk.messages;
+            messageIndex = 0;
+            submitChunks();
+        }
+
+        AircraftSurveillanceMessage aircraftSurveillanceMessage = messages.get(messageIndex);
+        messages.set(messageIndex, null);
+        messageIndex++;
+        return aircraftSurveillanceMessage;
+    }
+
+    private static Chunk takeChunk(ForkJoinTask<Chunk> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("interrupted while waiting for a chunk");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Cancels the ranges that have not been read.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        for (ForkJoinTask<Chunk> task : chunkTasks) {
+            task.cancel(false);
+        }
+        chunkTasks.clear();
+        nextChunkStart = fileSize;
+        messages = null;
+    }
+
+    private static class Chunk {
+        private FrameDecoder frameDecoder;
+        private final List<AircraftSurveillanceMessage> messages = new ArrayList<AircraftSurveillanceMessage>();
+    }
+
+}
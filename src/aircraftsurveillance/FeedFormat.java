@@ -0,0 +1,20 @@
+package aircraftsurveillance;
+
+/**
+ * Framing of a raw Mode S feed served by a receiver over TCP.
+ */
+public enum FeedFormat {
+
+    /**
+     * Beast binary: each frame is 0x1A, a type byte, a 6 byte MLAT timestamp, a signal level byte and the 2, 7 or 14
+     * frame bytes, with every 0x1A after the first escaped as 0x1A 0x1A.  Usually served on port 30005.
+     */
+    BEAST,
+
+    /**
+     * AVR: each frame is a line of hex, "*" followed by the frame and ";", or "@" followed by a 12 digit MLAT timestamp,
+     * the frame and ";".  Usually served on port 30002.
+     */
+    AVR
+
+}
@@ -0,0 +1,216 @@
+package aircraftsurveillance;
+
+import aircraftsurveillance.transponder.TransponderMessage;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+
+/**
+ * Serves a captured raw Mode S feed on a local TCP port, so the network path of NetworkSurveillanceReader can be run
+ * against known data.  The capture holds the bytes of a Beast or AVR feed exactly as a receiver sends them, for
+ * example saved with "nc receiver 30005 > capture.beast", or written from a log file by writeCapture().
+ * <p>
+ * The server accepts a single connection, writes the capture to it in WRITE_SIZE pieces and closes it.  WRITE_SIZE is
+ * not a multiple of any frame length, so frames are split across reads the way they are on a live feed.
+ */
+class FeedReplayServer {
+
+    public static final int WRITE_SIZE = 1021;
+
+    private static final byte BEAST_ESCAPE = 0x1A;
+    private static final int BEAST_SIGNAL_LEVEL = 0xFF;
+    private static final long BEAST_CLOCK_MASK = 0xFFFFFFFFFFFFL;  // 48-bit 12 MHz MLAT clock
+
+    private final ServerSocketChannel serverChannel;
+    private final Thread thread;
+
+    /**
+     * Starts serving a capture on a free port of the loopback address.
+     *
+     * @param captureFile capture of a Beast or AVR feed
+     * @throws IOException
+     */
+    public FeedReplayServer(final File captureFile) throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+
+        thread = new Thread("replay " + captureFile.getName()) {
+            @Override
+            public void run() {
+                serve(captureFile);
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void serve(File captureFile) {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            try {
+                InputStream input = new FileInputStream(captureFile);
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocate(WRITE_SIZE);
+                    int count;
+                    while ((count = input.read(buffer.array())) > 0) {
+                        buffer.clear().limit(count);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    }
+                } finally {
+                    input.close();
+                }
+            } finally {
+                channel.close();
+            }
+        } catch (IOException e) {
+            if (serverChannel.isOpen()) {
+                System.out.println("Replay of " + captureFile + " failed: " + e);
+            }
+        } finally {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                // nothing more is served either way
+            }
+        }
+    }
+
+    /**
+     * @return the port the capture is served on
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stops serving the capture.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        serverChannel.close();
+        thread.interrupt();
+    }
+
+    /**
+     * Writes the frames of a kinetic or SDR log file, plain or compressed, as the capture of a Beast or AVR feed.  The
+     * Beast MLAT timestamp is taken from the log timestamp.  The receiver positions of the log are not part of a feed.
+     *
+     * @param logFile     log file to convert
+     * @param captureFile capture file to create
+     * @param format      framing of the capture
+     * @return number of frames written to the capture
+     * @throws IOException
+     */
+    public static long writeCapture(File logFile, File captureFile, final FeedFormat format) throws IOException {
+        final OutputStream output = new BufferedOutputStream(new FileOutputStream(captureFile), 65536);
+        final long[] count = new long[1];
+        try {
+            // the reader hands every raw frame to the decoder, which writes it to the capture instead of decoding it
+            SurveillanceReader reader = SurveillanceSimulator.openReader(logFile, new FrameDecoder() {
+                @Override
+                public TransponderMessage decode(Instant timestamp, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) {
+                    if ((data == null) || ((data.length != 2) & (data.length != 7) & (data.length != 14))) {
+                        // not a frame a feed can carry
+                        return null;
+                    }
+                    try {
+                        if (format == FeedFormat.BEAST) {
+                            writeBeast(output, timestamp, data);
+                        } else {
+                            writeAvr(output, data);
+                        }
+                    } catch (IOException e) {
+                        throw new CaptureWriteException(e);
+                    }
+                    count[0]++;
+                    return null;
+                }
+            }, true);
+            try {
+                while (reader.read() != null) {
+                    // every frame is consumed by the decoder
+                }
+            } catch (CaptureWriteException e) {
+                throw e.getCause();
+            } finally {
+                reader.close();
+            }
+        } finally {
+            output.close();
+        }
+        return count[0];
+    }
+
+    private static void writeBeast(OutputStream output, Instant timestamp, int[] data) throws IOException {
+        output.write(BEAST_ESCAPE);
+        if (data.length == 2) {
+            output.write('1');
+        } else if (data.length == 7) {
+            output.write('2');
+        } else {
+            output.write('3');
+        }
+
+        long clock = ((timestamp.getEpochSecond() * 12000000L) + (timestamp.getNano() / 1000 * 12)) & BEAST_CLOCK_MASK;
+        for (int shift = 40; shift >= 0; shift -= 8) {
+            writeBeastByte(output, (int) (clock >>> shift) & 0xFF);
+        }
+        writeBeastByte(output, BEAST_SIGNAL_LEVEL);
+        for (int b : data) {
+            writeBeastByte(output, b);
+        }
+    }
+
+    private static void writeBeastByte(OutputStream output, int b) throws IOException {
+        output.write(b);
+        if (b == BEAST_ESCAPE) {
+            output.write(BEAST_ESCAPE);
+        }
+    }
+
+    private static void writeAvr(OutputStream output, int[] data) throws IOException {
+        output.write('*');
+        for (int b : data) {
+            output.write(Character.toUpperCase(Character.forDigit(b >>> 4, 16)));
+            output.write(Character.toUpperCase(Character.forDigit(b & 0x0F, 16)));
+        }
+        output.write(';');
+        output.write('\n');
+    }
+
+    /**
+     * Carries an IOException out of FrameDecoder.decode(), which can not throw it.
+     */
+    private static class CaptureWriteException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CaptureWriteException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,234 @@
+package aircraftsurveillance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads aircraft surveillance messages from a log file that is still being written.  At the end of the file the
+ * reader waits for the logger to append more lines instead of returning null, polling the file size with a backoff
+ * that starts at MIN_POLL_MILLIS and doubles up to MAX_POLL_MILLIS while no data arrives.  A partial line at the end
+ * of the file is held until the logger completes it.  When the logger rotates to a new file, a log with the same
+ * prefix and a later timestamp in its name, the reader finishes the current file and continues with the new one.
+ * A file that shrinks is taken to have been truncated and is read again from the start.
+ * <p>
+ * read() only returns null once the reader is closed or the reading thread is interrupted.
+ */
+class FollowingSurveillanceLogFileReader implements SurveillanceReader {
+
+    private static final long MIN_POLL_MILLIS = 1;
+    private static final long MAX_POLL_MILLIS = 250;
+    private static final int READ_BUFFER_SIZE = 65536;
+
+    private final FrameDecoder frameDecoder;
+    private File file;
+    private FileChannel channel;
+    private SurveillanceLogFileReader reader;
+    private volatile boolean closed = false;
+
+    /**
+     * Opens the log file and starts reading it from the beginning.
+     *
+     * @param file         plain text log file to follow
+     * @param frameDecoder decoder used to turn the raw frames into messages
+     * @throws IOException
+     */
+    public FollowingSurveillanceLogFileReader(File file, FrameDecoder frameDecoder) throws IOException {
+        this.frameDecoder = frameDecoder;
+        open(file);
+    }
+
+    private void open(File file) throws IOException {
+        this.file = file;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        reader = new SurveillanceLogFileReader(new FollowInputStream(), LogFileFormat.fromFileName(file.getName()), frameDecoder);
+    }
+
+    /**
+     * Finds the most recent log file in a directory, the one to follow.
+     *
+     * @param directory directory the logger writes to
+     * @return the plain text log file with the latest timestamp in its name, or null if there is none
+     */
+    public static File latestFile(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return null;
+        }
+        File latest = null;
+        for (File candidate : files) {
+            if (isLogFile(candidate)) {
+                if ((latest == null) || (LogFileFormat.startEpochSecond(candidate.getName()) > LogFileFormat.startEpochSecond(latest.getName()))) {
+                    latest = candidate;
+                }
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * @return the earliest log file with the same prefix as the current file and a later timestamp, or null if the
+     * logger has not rotated to a new file
+     */
+    private File nextFile() {
+        File[] files = file.getAbsoluteFile().getParentFile().listFiles();
+        if (files == null) {
+            return null;
+        }
+        String prefix = file.getName().substring(0, file.getName().indexOf(".") + 1);
+        long timestamp = LogFileFormat.startEpochSecond(file.getName());
+        File next = null;
+        for (File candidate : files) {
+            if (isLogFile(candidate) && candidate.getName().startsWith(prefix)) {
+                long candidateTimestamp = LogFileFormat.startEpochSecond(candidate.getName());
+                if ((candidateTimestamp > timestamp) && ((next == null) || (candidateTimestamp < LogFileFormat.startEpochSecond(next.getName())))) {
+                    next = candidate;
+                }
+            }
+        }
+        return next;
+    }
+
+    private static boolean isLogFile(File file) {
+        String name = file.getName();
+        if (!name.endsWith(".txt") || (LogFileFormat.fromFileName(name) == null)) {
+            return false;
+        }
+        try {
+            LogFileFormat.startEpochSecond(name);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next aircraft surveillance message, waiting for the logger if necessary.
+     *
+     * @return the next AircraftSurveillanceMessage or null if the reader was closed or the thread interrupted
+     * @throws IOException
+     */
+    public AircraftSurveillanceMessage read() throws IOException {
+        while (true) {
+            AircraftSurveillanceMessage aircraftSurveillanceMessage = reader.read();
+            if (aircraftSurveillanceMessage != null) {
+                return aircraftSurveillanceMessage;
+            }
+            if (closed) {
+                return null;
+            }
+
+            // the stream only ends early when the logger has rotated to a new file
+            File next = nextFile();
+            reader.close();
+            if (next == null) {
+                // the new file was removed again
+                return null;
+            }
+            open(next);
+        }
+    }
+
+    /**
+     * Stops following the log.  A read() that is waiting for data returns null.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        closed = true;
+        reader.close();
+    }
+
+    /**
+     * Stream over the current file that waits at its end instead of ending, until the file is rotated or the reader
+     * is closed.
+     */
+    private class FollowInputStream extends InputStream {
+        private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private long position = 0;
+
+        FollowInputStream() {
+            buffer.flip();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return buffer.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        /**
+         * Waits until there are bytes in the buffer.
+         *
+         * @return false at the end of the stream, when the file was rotated or the reader closed
+         */
+        private boolean fill() throws IOException {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+
+            long pollMillis = MIN_POLL_MILLIS;
+            while (true) {
+                if (closed) {
+                    return false;
+                }
+
+                long size = channel.size();
+                if (size < position) {
+                    // truncated, read the new contents from the start
+                    position = 0;
+                }
+                if (size > position) {
+                    buffer.clear();
+                    int count = channel.read(buffer, position);
+                    buffer.flip();
+                    if (count > 0) {
+                        position += count;
+                        return true;
+                    }
+                }
+
+                if (pollMillis == MAX_POLL_MILLIS) {
+                    // idle for a while, check whether the logger has moved on, and if so, whether it appended
+                    // anything to this file before it did
+                    if ((nextFile() != null) && (channel.size() == position)) {
+                        return false;
+                    }
+                }
+
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException e) {
+                    closed = true;
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                pollMillis = Math.min(pollMillis * 2, MAX_POLL_MILLIS);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+}
@@ -0,0 +1,219 @@
+package aircraftsurveillance;
+
+import aircraftsurveillance.transponder.ModeSFrameView;
+
+import java.time.Instant;
+
+/**
+ * Reusable container for a batch of raw transponder frames, filled by FrameBatchReader.readBatch().  The frames are
+ * stored as parallel arrays, one per field, with the frame bytes packed into a single byte array at a fixed stride, so
+ * a stage such as the parity check, type code routing or statistics counting can run a tight loop over the whole
+ * batch.  Filling a batch allocates nothing.
+ * <p>
+ * A frame can be marked as rejected by a stage, later stages skip it.
+ */
+class FrameBatch {
+
+    public static final int MAX_FRAME_LENGTH = 14;
+
+    private final int capacity;
+    private int size = 0;
+    private final long[] timestampMicros;
+    private final double[] receiverLatitudes;
+    private final double[] receiverLongitudes;
+    private final double[] receiverAltitudes;
+    private final int[] lengths;
+    private final byte[] frames;
+    private final boolean[] rejected;
+
+    /**
+     * @param capacity maximum number of frames in the batch
+     */
+    public FrameBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity is not valid (capacity == " + capacity + ")");
+        }
+        this.capacity = capacity;
+        timestampMicros = new long[capacity];
+        receiverLatitudes = new double[capacity];
+        receiverLongitudes = new double[capacity];
+        receiverAltitudes = new double[capacity];
+        lengths = new int[capacity];
+        frames = new byte[capacity * MAX_FRAME_LENGTH];
+        rejected = new boolean[capacity];
+    }
+
+    /**
+     * Empties the batch.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a frame to the end of the batch.
+     *
+     * @param timestampMicros   time the frame was received in microseconds since the epoch
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param data              int array representing the bytes of the frame, copied into the batch
+     * @param length            number of bytes in the frame
+     */
+    public void add(long timestampMicros, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data, int length) {
+        int offset = add(timestampMicros, receiverLatitude, receiverLongitude, receiverAltitude, length);
+        for (int i = 0; i < length; i++) {
+            frames[offset + i] = (byte) data[i];
+        }
+    }
+
+    /**
+     * Adds a frame to the end of the batch.
+     *
+     * @param timestampMicros   time the frame was received in microseconds since the epoch
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param bytes             array holding the bytes of the frame, copied into the batch
+     * @param start             index of the first byte of the frame
+     * @param length            number of bytes in the frame
+     */
+    public void add(long timestampMicros, double receiverLatitude, double receiverLongitude, double receiverAltitude, byte[] bytes, int start, int length) {
+        int offset = add(timestampMicros, receiverLatitude, receiverLongitude, receiverAltitude, length);
+        System.arraycopy(bytes, start, frames, offset, length);
+    }
+
+    private int add(long timestampMicros, double receiverLatitude, double receiverLongitude, double receiverAltitude, int length) {
+        if (size == capacity) {
+            throw new IllegalStateException("batch is full");
+        }
+        if ((length < 0) | (length > MAX_FRAME_LENGTH)) {
+            throw new IllegalArgumentException("frame length is not valid (length == " + length + ")");
+        }
+        this.timestampMicros[size] = timestampMicros;
+        receiverLatitudes[size] = receiverLatitude;
+        receiverLongitudes[size] = receiverLongitude;
+        receiverAltitudes[size] = receiverAltitude;
+        lengths[size] = length;
+        rejected[size] = false;
+        return (size++) * MAX_FRAME_LENGTH;
+    }
+
+    /**
+     * @return number of frames in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    public long getTimestampMicros(int index) {
+        return timestampMicros[index];
+    }
+
+    public Instant getTimestamp(int index) {
+        return Instant.ofEpochSecond(Math.floorDiv(timestampMicros[index], 1000000L), Math.floorMod(timestampMicros[index], 1000000L) * 1000);
+    }
+
+    public double getReceiverLatitude(int index) {
+        return receiverLatitudes[index];
+    }
+
+    public double getReceiverLongitude(int index) {
+        return receiverLongitudes[index];
+    }
+
+    public double getReceiverAltitude(int index) {
+        return receiverAltitudes[index];
+    }
+
+    /**
+     * @return the packed frame bytes, frame i starts at i * MAX_FRAME_LENGTH
+     */
+    public byte[] getFrames() {
+        return frames;
+    }
+
+    /**
+     * @param index frame in the batch
+     * @return the bytes of the frame in a new int array
+     */
+    public int[] getData(int index) {
+        int[] data = new int[lengths[index]];
+        int offset = index * MAX_FRAME_LENGTH;
+        for (int i = 0; i < data.length; i++) {
+            data[i] = frames[offset + i] & 0xFF;
+        }
+        return data;
+    }
+
+    /**
+     * Points a view at a frame of the batch without copying the frame out of the batch.
+     *
+     * @param index frame in the batch
+     * @param view  view to point at the frame
+     * @return true if the frame was wrapped, false if it is not a Mode S frame
+     */
+    public boolean wrap(int index, ModeSFrameView view) {
+        return view.wrap(timestampMicros[index], receiverLatitudes[index], receiverLongitudes[index], receiverAltitudes[index], frames, index * MAX_FRAME_LENGTH, lengths[index]);
+    }
+
+    /**
+     * Replaces the bytes of a frame, for example with a corrected copy.
+     *
+     * @param index frame in the batch
+     * @param data  int array representing the new bytes, the same length as the frame
+     */
+    public void setData(int index, int[] data) {
+        int offset = index * MAX_FRAME_LENGTH;
+        for (int i = 0; i < lengths[index]; i++) {
+            frames[offset + i] = (byte) data[i];
+        }
+    }
+
+    /**
+     * @return the downlink format of a Mode S frame, or -1 if the frame is not a Mode S frame
+     */
+    public int getDownlinkFormat(int index) {
+        if ((lengths[index] != 7) & (lengths[index] != 14)) {
+            return -1;
+        }
+        return (frames[index * MAX_FRAME_LENGTH] & 0xFF) >>> 3;
+    }
+
+    /**
+     * @return true if the frame is a 112-bit DF17 or DF18 message
+     */
+    public boolean isExtendedSquitter(int index) {
+        if (lengths[index] != 14) {
+            return false;
+        }
+        int dataFormat = (frames[index * MAX_FRAME_LENGTH] & 0xFF) >>> 3;
+        return (dataFormat == 17) | (dataFormat == 18);
+    }
+
+    /**
+     * @return the ADS-B type code of an extended squitter, or -1 for any other frame
+     */
+    public int getTypeCode(int index) {
+        if (!isExtendedSquitter(index)) {
+            return -1;
+        }
+        return (frames[(index * MAX_FRAME_LENGTH) + 4] & 0xFF) >>> 3;
+    }
+
+    /**
+     * Marks a frame so later stages skip it.
+     */
+    public void reject(int index) {
+        rejected[index] = true;
+    }
+
+    public boolean isRejected(int index) {
+        return rejected[index];
+    }
+
+}
@@ -0,0 +1,20 @@
+package aircraftsurveillance;
+
+import java.io.IOException;
+
+/**
+ * A source of raw transponder frames that can be read a batch at a time instead of one message at a time.
+ */
+interface FrameBatchReader extends SurveillanceReader {
+
+    /**
+     * Reads the next frames into a batch, replacing its contents.  The frames are not decoded or checked, frames
+     * that can not be a Mode S or Mode AC frame are left out.
+     *
+     * @param batch batch to fill
+     * @return number of frames read, 0 if no more frames are available
+     * @throws IOException
+     */
+    int readBatch(FrameBatch batch) throws IOException;
+
+}
@@ -0,0 +1,301 @@
+package aircraftsurveillance;
+
+import aircraftsurveillance.transponder.DecodePolicy;
+import aircraftsurveillance.transponder.ModeSErrorCorrection;
+import aircraftsurveillance.transponder.ModeSFrameView;
+import aircraftsurveillance.transponder.ModeSParity;
+import aircraftsurveillance.transponder.TransponderMessage;
+
+import java.time.Instant;
+
+/**
+ * Decodes raw transponder frames read from a log into messages.  The parity of each extended squitter is checked
+ * before any of its fields are decoded.  Depending on the error correction mode, frames with a bad parity are either
+ * corrected or counted and dropped.
+ */
+class FrameDecoder {
+
+    private ModeSErrorCorrection.Mode errorCorrection = ModeSErrorCorrection.Mode.OFF;
+    private DecodePolicy decodePolicy = DecodePolicy.ALL;
+    private Instant windowStart = Instant.MIN;
+    private Instant windowEnd = Instant.MAX;
+    private long windowStartMicros = Long.MIN_VALUE;
+    private long windowEndMicros = Long.MAX_VALUE;
+
+    private long parityErrorCount = 0;
+    private long singleBitCorrectionCount = 0;
+    private long doubleBitCorrectionCount = 0;
+    private long malformedLineCount = 0;
+
+    /**
+     * Creates a decoder with the same error correction and decode policy as this one, but with its own counters, for
+     * use on another thread.
+     *
+     * @return the new decoder
+     */
+    public FrameDecoder copySettings() {
+        FrameDecoder frameDecoder = new FrameDecoder();
+        frameDecoder.errorCorrection = errorCorrection;
+        frameDecoder.decodePolicy = decodePolicy;
+        frameDecoder.windowStart = windowStart;
+        frameDecoder.windowEnd = windowEnd;
+        frameDecoder.windowStartMicros = windowStartMicros;
+        frameDecoder.windowEndMicros = windowEndMicros;
+        return frameDecoder;
+    }
+
+    /**
+     * Adds the counters of another decoder, typically one created by copySettings(), to the counters of this one.
+     *
+     * @param frameDecoder decoder whose counts to add
+     */
+    public void addCounts(FrameDecoder frameDecoder) {
+        parityErrorCount += frameDecoder.parityErrorCount;
+        singleBitCorrectionCount += frameDecoder.singleBitCorrectionCount;
+        doubleBitCorrectionCount += frameDecoder.doubleBitCorrectionCount;
+        malformedLineCount += frameDecoder.malformedLineCount;
+    }
+
+    /**
+     * @param errorCorrection maximum number of bit errors to correct in an extended squitter
+     */
+    public void setErrorCorrection(ModeSErrorCorrection.Mode errorCorrection) {
+        this.errorCorrection = errorCorrection;
+    }
+
+    public ModeSErrorCorrection.Mode getErrorCorrection() {
+        return errorCorrection;
+    }
+
+    /**
+     * @param decodePolicy ADS-B type codes to decode, extended squitters with other type codes are not fully decoded
+     */
+    public void setDecodePolicy(DecodePolicy decodePolicy) {
+        this.decodePolicy = decodePolicy;
+    }
+
+    public DecodePolicy getDecodePolicy() {
+        return decodePolicy;
+    }
+
+    /**
+     * Limits decoding to the frames received in a time window.  Frames outside the window are dropped before their
+     * parity is checked, so they are not counted however much of a log around the window a reader returns.  Malformed
+     * lines have no timestamp to check, they are counted for every line a reader reads, inside the window or not.
+     *
+     * @param windowStart start of the window, Instant.MIN for no limit
+     * @param windowEnd   end of the window, inclusive, Instant.MAX for no limit
+     */
+    public void setTimeWindow(Instant windowStart, Instant windowEnd) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        windowStartMicros = toMicros(windowStart.plusNanos(999));
+        windowEndMicros = toMicros(windowEnd);
+    }
+
+    /**
+     * Decodes a raw transponder frame.
+     *
+     * @param timestamp         time the frame was received
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param data              int array representing the bytes of the frame
+     * @return the decoded message or null if the frame was rejected or could not be decoded
+     */
+    public TransponderMessage decode(Instant timestamp, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (timestamp.isBefore(windowStart) | timestamp.isAfter(windowEnd)) {
+            return null;
+        }
+        if (!checkParity(data)) {
+            return null;
+        }
+
+        return TransponderMessage.parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data, decodePolicy);
+    }
+
+    /**
+     * Decodes a raw transponder frame whose timestamp is given in microseconds.  The Instant of the message is only
+     * created once the frame has passed the time window and the parity check, so a dropped frame allocates nothing.
+     *
+     * @param timestampMicros   time the frame was received in microseconds since the epoch
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param data              int array representing the bytes of the frame, corrected in place, not kept by the
+     *                          message so the caller can reuse it
+     * @return the decoded message or null if the frame was rejected or could not be decoded
+     */
+    public TransponderMessage decode(long timestampMicros, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) {
+        if (data == null) {
+            return null;
+        }
+        if ((timestampMicros < windowStartMicros) | (timestampMicros > windowEndMicros)) {
+            return null;
+        }
+        if (!checkParity(data)) {
+            return null;
+        }
+        if ((data.length != 14) | ((data[0] >>> 3) != 17)) {
+            // only DF17 extended squitters are decoded
+            return null;
+        }
+
+        Instant timestamp = Instant.ofEpochSecond(Math.floorDiv(timestampMicros, 1000000L), Math.floorMod(timestampMicros, 1000000L) * 1000);
+        return TransponderMessage.parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data, decodePolicy);
+    }
+
+    /**
+     * Checks the parity of every extended squitter in a batch in one pass, correcting them in place if error
+     * correction is enabled, and rejects the frames that have to be dropped.  Frames outside the time window are
+     * rejected without being checked.  The counts are the same as for decoding the frames one at a time.
+     *
+     * @param batch frames to check
+     * @return number of frames rejected
+     */
+    public int checkParity(FrameBatch batch) {
+        byte[] frames = batch.getFrames();
+        int rejectedCount = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            long timestampMicros = batch.getTimestampMicros(i);
+            if ((timestampMicros < windowStartMicros) | (timestampMicros > windowEndMicros)) {
+                batch.reject(i);
+                rejectedCount++;
+            } else if (batch.isExtendedSquitter(i)) {
+                int syndrome = ModeSParity.syndrome(frames, i * FrameBatch.MAX_FRAME_LENGTH, 14);
+                if (syndrome != 0) {
+                    // rare, correct a copy and write it back
+                    int[] data = batch.getData(i);
+                    int correctedBits = ModeSErrorCorrection.correct(data, syndrome, errorCorrection);
+                    if (correctedBits == 1) {
+                        singleBitCorrectionCount++;
+                        batch.setData(i, data);
+                    } else if (correctedBits == 2) {
+                        doubleBitCorrectionCount++;
+                        batch.setData(i, data);
+                    } else {
+                        parityErrorCount++;
+                        batch.reject(i);
+                        rejectedCount++;
+                    }
+                }
+            }
+        }
+        return rejectedCount;
+    }
+
+    /**
+     * Decodes a frame of a batch whose parity has already been checked by checkParity(FrameBatch) into a view instead
+     * of a message, so nothing is allocated.  The view is only valid until it is pointed at the next frame.
+     *
+     * @param batch frames checked by checkParity(FrameBatch)
+     * @param index frame to decode
+     * @param view  view to point at the frame, for example ModeSFrameView.forCurrentThread()
+     * @return the view or null if the frame was rejected or is not a Mode S frame
+     */
+    public ModeSFrameView decode(FrameBatch batch, int index, ModeSFrameView view) {
+        if (batch.isRejected(index)) {
+            return null;
+        }
+        if (!batch.wrap(index, view)) {
+            return null;
+        }
+        return view;
+    }
+
+    /**
+     * Checks the parity of an extended squitter, correcting it in place if error correction is enabled.
+     *
+     * @return false if the frame has to be dropped
+     */
+    private boolean checkParity(int[] data) {
+        if (isExtendedSquitter(data)) {
+            int syndrome = ModeSParity.syndrome(data);
+            if (syndrome != 0) {
+                int correctedBits = ModeSErrorCorrection.correct(data, syndrome, errorCorrection);
+                if (correctedBits == 1) {
+                    singleBitCorrectionCount++;
+                } else if (correctedBits == 2) {
+                    doubleBitCorrectionCount++;
+                } else {
+                    parityErrorCount++;
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the instant in microseconds since the epoch, rounded down and clamped to the range of a long
+     */
+    private static long toMicros(Instant instant) {
+        if (instant.getEpochSecond() >= Long.MAX_VALUE / 1000000L) {
+            return Long.MAX_VALUE;
+        }
+        if (instant.getEpochSecond() <= Long.MIN_VALUE / 1000000L) {
+            return Long.MIN_VALUE;
+        }
+        return (instant.getEpochSecond() * 1000000L) + (instant.getNano() / 1000);
+    }
+
+    /**
+     * @return true if the frame is a 112-bit DF17 or DF18 message, the formats whose parity is not overlaid
+     */
+    private static boolean isExtendedSquitter(int[] data) {
+        if (data.length != 14) {
+            return false;
+        }
+        int dataFormat = data[0] >>> 3;
+        return (dataFormat == 17) | (dataFormat == 18);
+    }
+
+    /**
+     * Counts a log line that was skipped because one of its numbers or its frame could not be parsed.
+     */
+    public void countMalformedLine() {
+        malformedLineCount++;
+    }
+
+    /**
+     * Counts log lines that were skipped by a reader with its own decoder, such as the reader thread of
+     * PipelinedSurveillanceReader.
+     *
+     * @param count number of skipped lines
+     */
+    public void countMalformedLines(long count) {
+        malformedLineCount += count;
+    }
+
+    /**
+     * @return number of frames rejected because of a parity error
+     */
+    public long getParityErrorCount() {
+        return parityErrorCount;
+    }
+
+    /**
+     * @return number of frames recovered by correcting a single bit
+     */
+    public long getSingleBitCorrectionCount() {
+        return singleBitCorrectionCount;
+    }
+
+    /**
+     * @return number of frames recovered by correcting two bits
+     */
+    public long getDoubleBitCorrectionCount() {
+        return doubleBitCorrectionCount;
+    }
+
+    /**
+     * @return number of log lines skipped because one of their numbers or their frame could not be parsed
+     */
+    public long getMalformedLineCount() {
+        return malformedLineCount;
+    }
+
+}
@@ -0,0 +1,206 @@
+package aircraftsurveillance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded single producer, single consumer ring of raw transponder frames.  The slots are preallocated as parallel
+ * arrays, one per field, so publishing and taking a frame allocates nothing.  The producer and consumer only share two
+ * sequence counters, each written by one side with an ordered store, so neither side takes a lock.  A side that has
+ * to wait spins briefly, then yields, then parks for short intervals.
+ * <p>
+ * The consumer takes a slot with take(), reads its fields, and hands it back with release() before taking the next.
+ */
+class FrameRingBuffer {
+
+    public static final int MAX_FRAME_LENGTH = 14;
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50000;
+
+    private final int mask;
+    private final long[] timestampMicros;
+    private final double[] receiverLatitudes;
+    private final double[] receiverLongitudes;
+    private final double[] receiverAltitudes;
+    private final int[] lengths;
+    private final byte[] frames;
+
+    private final AtomicLong writeSequence = new AtomicLong(0);  // next slot to publish, written by the producer
+    private final AtomicLong readSequence = new AtomicLong(0);  // next slot to take, written by the consumer
+    private long cachedReadSequence = 0;  // producer's last view of readSequence
+    private long cachedWriteSequence = 0;  // consumer's last view of writeSequence
+
+    private long malformedLineCount = 0;  // written by the producer, read by the consumer once finished
+
+    private volatile boolean finished = false;
+    private volatile Throwable failure = null;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public FrameRingBuffer(int capacity) {
+        if ((capacity < 1) | (capacity > (1 << 24))) {
+            throw new IllegalArgumentException("capacity is not valid (capacity == " + capacity + ")");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        mask = size - 1;
+        timestampMicros = new long[size];
+        receiverLatitudes = new double[size];
+        receiverLongitudes = new double[size];
+        receiverAltitudes = new double[size];
+        lengths = new int[size];
+        frames = new byte[size * MAX_FRAME_LENGTH];
+    }
+
+    // producer
+
+    /**
+     * Publishes a frame, waiting for a free slot if the ring is full.
+     *
+     * @param timestampMicros   time the frame was received in microseconds since the epoch
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param data              int array representing the bytes of the frame, copied into the slot
+     * @throws InterruptedException if interrupted while waiting for a free slot
+     */
+    public void publish(long timestampMicros, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) throws InterruptedException {
+        if (data.length > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("frame is too long (length == " + data.length + ")");
+        }
+
+        long sequence = writeSequence.get();
+        if (sequence - cachedReadSequence > mask) {
+            int tries = 0;
+            while (sequence - (cachedReadSequence = readSequence.get()) > mask) {
+                tries = backOff(tries);
+            }
+        }
+
+        int slot = (int) sequence & mask;
+        this.timestampMicros[slot] = timestampMicros;
+        receiverLatitudes[slot] = receiverLatitude;
+        receiverLongitudes[slot] = receiverLongitude;
+        receiverAltitudes[slot] = receiverAltitude;
+        lengths[slot] = data.length;
+        int offset = slot * MAX_FRAME_LENGTH;
+        for (int i = 0; i < data.length; i++) {
+            frames[offset + i] = (byte) data[i];
+        }
+        writeSequence.lazySet(sequence + 1);
+    }
+
+    /**
+     * Counts a log line the producer skipped because it could not be parsed.
+     */
+    public void countMalformedLine() {
+        malformedLineCount++;
+    }
+
+    /**
+     * Marks the end of the frames.  The consumer sees the end once it has taken every published frame.
+     *
+     * @param failure the reason the producer stopped early, or null if it reached the end of its input
+     */
+    public void finish(Throwable failure) {
+        this.failure = failure;
+        finished = true;
+    }
+
+    // consumer
+
+    /**
+     * Takes the next frame, waiting for the producer if the ring is empty.
+     *
+     * @return the slot of the frame, or -1 once the producer has finished and every frame has been taken
+     * @throws InterruptedException if interrupted while waiting for a frame
+     */
+    public int take() throws InterruptedException {
+        long sequence = readSequence.get();
+        if (sequence == cachedWriteSequence) {
+            int tries = 0;
+            while (sequence == (cachedWriteSequence = writeSequence.get())) {
+                if (finished) {
+                    // the last frames may have been published just before the producer finished
+                    if (sequence == (cachedWriteSequence = writeSequence.get())) {
+                        return -1;
+                    }
+                    break;
+                }
+                tries = backOff(tries);
+            }
+        }
+        return (int) sequence & mask;
+    }
+
+    /**
+     * Hands the slot returned by the last take() back to the producer.
+     */
+    public void release() {
+        readSequence.lazySet(readSequence.get() + 1);
+    }
+
+    /**
+     * @return the reason the producer stopped early, or null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return number of log lines the producer skipped, only complete once take() has returned -1
+     */
+    public long getMalformedLineCount() {
+        return malformedLineCount;
+    }
+
+    public long getTimestampMicros(int slot) {
+        return timestampMicros[slot];
+    }
+
+    public double getReceiverLatitude(int slot) {
+        return receiverLatitudes[slot];
+    }
+
+    public double getReceiverLongitude(int slot) {
+        return receiverLongitudes[slot];
+    }
+
+    public double getReceiverAltitude(int slot) {
+        return receiverAltitudes[slot];
+    }
+
+    public int getLength(int slot) {
+        return lengths[slot];
+    }
+
+    /**
+     * Copies the bytes of a frame into an array the caller reuses, so taking a frame allocates nothing.
+     *
+     * @param slot slot of the frame
+     * @param data array to fill, getLength(slot) long
+     */
+    public void getData(int slot, int[] data) {
+        int offset = slot * MAX_FRAME_LENGTH;
+        for (int i = 0; i < lengths[slot]; i++) {
+            data[i] = frames[offset + i] & 0xFF;
+        }
+    }
+
+    private static int backOff(int tries) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (tries >= SPIN_TRIES + YIELD_TRIES) {
+            LockSupport.parkNanos(PARK_NANOS);
+        } else if (tries >= SPIN_TRIES) {
+            Thread.yield();
+        }
+        return tries + 1;
+    }
+
+}
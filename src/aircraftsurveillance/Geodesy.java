@@ -0,0 +1,69 @@
+package aircraftsurveillance;
+
+/**
+ * Method used to compute the distance and course between two positions.  Each place that measures distances can use
+ * the method whose accuracy it needs:
+ * <ul>
+ * <li>VINCENTY solves the inverse problem on the WGS-84 ellipsoid iteratively, accurate to well under a millimetre,
+ * but it costs up to 25 iterations of trigonometry and can fail to converge for nearly antipodal positions.</li>
+ * <li>HAVERSINE uses a sphere with the mean earth radius.  It costs one square root, one arcsine and a few sines and
+ * cosines, always succeeds, and is within 0.6% of the ellipsoidal distance, at most 1.4 NM at 250 NM.  Courses are
+ * within 0.2 degrees.</li>
+ * <li>LocalTangentPlane measures in the east/north plane of the first position, typically the receiver, on the
+ * WGS-84 ellipsoid.  It costs about as much as HAVERSINE once the plane of a receiver is set up.  The horizontal
+ * distance in the plane falls short of the distance along the surface as the earth curves away, by 0.01% at 100 NM
+ * and 0.09% (0.22 NM) at 250 NM, at any latitude.  Courses are within 0.001 degrees.</li>
+ * </ul>
+ * Distances are in meters and courses in degrees clockwise from true north.
+ */
+public interface Geodesy {
+
+    Geodesy VINCENTY = new Geodesy() {
+        public double distance(Position from, Position to) throws Position.IterationLimitExceeded {
+            return Position.distance(from, to);
+        }
+
+        public double course(Position from, Position to) throws Position.IterationLimitExceeded {
+            return Position.course(from, to);
+        }
+    };
+
+    Geodesy HAVERSINE = new Geodesy() {
+        private static final double MEAN_RADIUS = 6371008.8;  // mean earth radius in meters
+
+        public double distance(Position from, Position to) {
+            double lat1 = Math.toRadians(from.getLatitude());
+            double lat2 = Math.toRadians(to.getLatitude());
+            double sinHalfDLat = Math.sin((lat2 - lat1) / 2);
+            double sinHalfDLon = Math.sin(Math.toRadians(to.getLongitude() - from.getLongitude()) / 2);
+            double h = (sinHalfDLat * sinHalfDLat) + (Math.cos(lat1) * Math.cos(lat2) * sinHalfDLon * sinHalfDLon);
+            return 2 * MEAN_RADIUS * Math.asin(Math.sqrt(Math.min(h, 1.0)));
+        }
+
+        public double course(Position from, Position to) {
+            double lat1 = Math.toRadians(from.getLatitude());
+            double lat2 = Math.toRadians(to.getLatitude());
+            double dLon = Math.toRadians(to.getLongitude() - from.getLongitude());
+            double y = Math.sin(dLon) * Math.cos(lat2);
+            double x = (Math.cos(lat1) * Math.sin(lat2)) - (Math.sin(lat1) * Math.cos(lat2) * Math.cos(dLon));
+            return (Math.toDegrees(Math.atan2(y, x)) + 360.0) % 360.0;
+        }
+    };
+
+    /**
+     * @param from first position
+     * @param to   second position
+     * @return distance between the positions in meters
+     * @throws Position.IterationLimitExceeded if an iterative method does not converge
+     */
+    double distance(Position from, Position to) throws Position.IterationLimitExceeded;
+
+    /**
+     * @param from first position
+     * @param to   second position
+     * @return the course from the first position to the second in degrees
+     * @throws Position.IterationLimitExceeded if an iterative method does not converge
+     */
+    double course(Position from, Position to) throws Position.IterationLimitExceeded;
+
+}
@@ -0,0 +1,82 @@
+package aircraftsurveillance;
+
+/**
+ * Geodesy that measures positions in the east/north/up frame of the first position of each call, usually the receiver.
+ * The second position is converted to earth centred coordinates on the WGS-84 ellipsoid and rotated into the tangent
+ * plane at the first, the distance is its horizontal distance in that plane and the course its direction.  The
+ * rotation is computed once per centre and kept while the centre does not change, so measuring many aircraft against
+ * the same receiver costs the sine and cosine of the aircraft's latitude and longitude difference and a square root,
+ * with no iteration.  See Geodesy for the error bounds.
+ * <p>
+ * The cached centre makes an instance unsafe to share between threads.
+ */
+public class LocalTangentPlane implements Geodesy {
+
+    private static final double a = 6378137.0;  // semi-major axis in meters
+    private static final double e2 = 6.69437999014e-3;  // first eccentricity squared
+
+    private double centreLatitude = Double.NaN;
+    private double centreLongitude = Double.NaN;
+    private double sinCentreLatitude;
+    private double cosCentreLatitude;
+    private double centreX;  // earth centred coordinates of the centre, with the x axis through its meridian
+    private double centreZ;
+
+    // east and north of the last position measured
+    private double east;
+    private double north;
+
+    private void setCentre(Position centre) {
+        if ((centre.getLatitude() == centreLatitude) & (centre.getLongitude() == centreLongitude)) {
+            return;
+        }
+        centreLatitude = centre.getLatitude();
+        centreLongitude = centre.getLongitude();
+
+        double latitude = Math.toRadians(centreLatitude);
+        sinCentreLatitude = Math.sin(latitude);
+        cosCentreLatitude = Math.cos(latitude);
+        double primeVerticalRadius = a / Math.sqrt(1 - (e2 * sinCentreLatitude * sinCentreLatitude));
+        centreX = primeVerticalRadius * cosCentreLatitude;
+        centreZ = primeVerticalRadius * (1 - e2) * sinCentreLatitude;
+    }
+
+    private void project(Position position) {
+        double latitude = Math.toRadians(position.getLatitude());
+        double dLon = Math.toRadians(position.getLongitude() - centreLongitude);
+        double sinLatitude = Math.sin(latitude);
+        double cosLatitude = Math.cos(latitude);
+        double primeVerticalRadius = a / Math.sqrt(1 - (e2 * sinLatitude * sinLatitude));
+
+        // earth centred coordinates relative to the centre, with the x axis through the centre's meridian
+        double dx = (primeVerticalRadius * cosLatitude * Math.cos(dLon)) - centreX;
+        double dy = primeVerticalRadius * cosLatitude * Math.sin(dLon);
+        double dz = (primeVerticalRadius * (1 - e2) * sinLatitude) - centreZ;
+
+        east = dy;
+        north = (cosCentreLatitude * dz) - (sinCentreLatitude * dx);
+    }
+
+    /**
+     * @param from centre of the plane
+     * @param to   position to measure
+     * @return horizontal distance between the positions in meters
+     */
+    public double distance(Position from, Position to) {
+        setCentre(from);
+        project(to);
+        return Math.sqrt((east * east) + (north * north));
+    }
+
+    /**
+     * @param from centre of the plane
+     * @param to   position to measure
+     * @return the course from the centre to the position in degrees
+     */
+    public double course(Position from, Position to) {
+        setCentre(from);
+        project(to);
+        return (Math.toDegrees(Math.atan2(east, north)) + 360.0) % 360.0;
+    }
+
+}
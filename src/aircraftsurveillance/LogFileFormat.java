@@ -0,0 +1,92 @@
+package aircraftsurveillance;
+
+/**
+ * Line formats written by the message loggers.  Both formats have seven tab separated fields: seconds, microseconds,
+ * receiver latitude, receiver longitude and receiver altitude, followed by two hex fields.
+ */
+enum LogFileFormat {
+
+    /**
+     * Written by KineticMessageLogger, field 5 is the raw kinetic packet and field 6 is the packet CRC.
+     */
+    KINETIC("kinetic."),
+
+    /**
+     * Written by SdrMessageLogger, field 5 is the MLAT timestamp and field 6 is the Mode S message.
+     */
+    SDR("sdr.");
+
+    private final String prefix;
+
+    LogFileFormat(String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * @return the file name prefix used by the logger
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Determines the format of a log file from the prefix of its name.
+     *
+     * @param fileName name of the log file
+     * @return the format or null if the name does not have a known prefix
+     */
+    public static LogFileFormat fromFileName(String fileName) {
+        for (LogFileFormat format : values()) {
+            if (fileName.startsWith(format.prefix)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Extracts the time the logger opened a file from its name, for example 1500000000 from sdr.1500000000.txt or
+     * sdr.1500000000.txt.gz.
+     *
+     * @param fileName name of the log file
+     * @return the start time in seconds since the epoch
+     * @throws NumberFormatException if the name does not contain a timestamp
+     */
+    public static long startEpochSecond(String fileName) {
+        String baseName = baseName(fileName);
+        return Long.parseLong(baseName.substring(baseName.indexOf(".") + 1));
+    }
+
+    /**
+     * Removes the extensions from the name of a log file, for example sdr.1500000000.txt.gz becomes sdr.1500000000.
+     *
+     * @param fileName name of the log file
+     * @return the prefix and timestamp of the name
+     */
+    public static String baseName(String fileName) {
+        int i = fileName.indexOf(".");
+        int j = fileName.indexOf(".", i + 1);
+        if ((i < 0) | (j < 0)) {
+            return fileName;
+        }
+        return fileName.substring(0, j);
+    }
+
+    /**
+     * Determines the format of a line from the lengths of its two hex fields.  The kinetic packet is always longer
+     * than its CRC, while the SDR Mode S message is always longer than its MLAT timestamp.
+     *
+     * @param field5Length trimmed length of field 5
+     * @param field6Length trimmed length of field 6
+     * @return the format or null if it cannot be determined
+     */
+    public static LogFileFormat detect(int field5Length, int field6Length) {
+        if (field5Length > field6Length) {
+            return KINETIC;
+        } else if (field5Length < field6Length) {
+            return SDR;
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,232 @@
+package aircraftsurveillance;
+
+import aircraftsurveillance.transponder.TransponderMessage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Time index of a plain text log file, stored in a sidecar file next to the log.  The log is divided into intervals
+ * of INTERVAL_SECONDS.  For each interval that has frames, the index holds the offset of the first line of any frame
+ * at or after the start of the interval, and the offset just past the last line of any frame before the end of the
+ * interval.  Because the offsets are taken over all following or preceding lines, a time window can be read from a
+ * single byte range even if the lines of the log are not strictly in time order.
+ * <p>
+ * The index file holds the magic number, the format version, the interval length, the size of the log file and the
+ * number of entries, followed by the interval number, start offset and end offset of each entry.  An index whose log
+ * file has changed size is ignored.
+ */
+class LogFileIndex {
+
+    public static final String EXTENSION = ".idx";
+    public static final int MAGIC = 0x4153494E;  // "ASIN"
+    public static final int VERSION = 1;
+    public static final int INTERVAL_SECONDS = 60;
+
+    private final long[] intervals;  // interval numbers, epoch second / INTERVAL_SECONDS, ascending
+    private final long[] startOffsets;
+    private final long[] endOffsets;
+    private final long fileSize;
+
+    private LogFileIndex(long[] intervals, long[] startOffsets, long[] endOffsets, long fileSize) {
+        this.intervals = intervals;
+        this.startOffsets = startOffsets;
+        this.endOffsets = endOffsets;
+        this.fileSize = fileSize;
+    }
+
+    /**
+     * @param logFile log file
+     * @return the index file of the log file, in the same directory
+     */
+    public static File indexFile(File logFile) {
+        return new File(logFile.getParentFile(), LogFileFormat.baseName(logFile.getName()) + EXTENSION);
+    }
+
+    /**
+     * Reads every frame of a log file and builds its index.
+     *
+     * @param logFile plain text log file
+     * @return the index
+     * @throws IOException
+     */
+    public static LogFileIndex build(File logFile) throws IOException {
+        final TreeMap<Long, long[]> offsets = new TreeMap<Long, long[]>();  // interval -> first line, end of last line
+        final MappedSurveillanceLogFileReader[] reader = new MappedSurveillanceLogFileReader[1];
+
+        // the reader hands every frame to the decoder, which records the line instead of decoding it
+        reader[0] = new MappedSurveillanceLogFileReader(logFile, new FrameDecoder() {
+            @Override
+            public TransponderMessage decode(Instant timestamp, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) {
+                long interval = Math.floorDiv(timestamp.getEpochSecond(), INTERVAL_SECONDS);
+                long lineOffset = reader[0].getLineOffset();
+                long lineEndOffset = reader[0].getLineEndOffset();
+                long[] intervalOffsets = offsets.get(interval);
+                if (intervalOffsets == null) {
+                    offsets.put(interval, new long[]{lineOffset, lineEndOffset});
+                } else {
+                    intervalOffsets[0] = Math.min(intervalOffsets[0], lineOffset);
+                    intervalOffsets[1] = Math.max(intervalOffsets[1], lineEndOffset);
+                }
+                return null;
+            }
+        });
+        try {
+            while (reader[0].read() != null) {
+                // every frame is consumed by the decoder
+            }
+        } finally {
+            reader[0].close();
+        }
+
+        int count = offsets.size();
+        long[] intervals = new long[count];
+        long[] startOffsets = new long[count];
+        long[] endOffsets = new long[count];
+        int i = 0;
+        for (Map.Entry<Long, long[]> entry : offsets.entrySet()) {
+            intervals[i] = entry.getKey();
+            startOffsets[i] = entry.getValue()[0];
+            endOffsets[i] = entry.getValue()[1];
+            i++;
+        }
+
+        // start offsets cover every later interval, end offsets every earlier one
+        for (i = count - 2; i >= 0; i--) {
+            startOffsets[i] = Math.min(startOffsets[i], startOffsets[i + 1]);
+        }
+        for (i = 1; i < count; i++) {
+            endOffsets[i] = Math.max(endOffsets[i], endOffsets[i - 1]);
+        }
+
+        return new LogFileIndex(intervals, startOffsets, endOffsets, logFile.length());
+    }
+
+    /**
+     * Reads the index of a log file.
+     *
+     * @param logFile log file
+     * @return the index, or null if the log file has no index or the index is older than the log file
+     * @throws IOException if the index can not be read
+     */
+    public static LogFileIndex read(File logFile) throws IOException {
+        File indexFile = indexFile(logFile);
+        if (!indexFile.isFile() || (indexFile.lastModified() < logFile.lastModified())) {
+            return null;
+        }
+
+        DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+        try {
+            if (input.readInt() != MAGIC) {
+                throw new IOException(indexFile + " is not a log file index");
+            }
+            int version = input.readInt();
+            if (version != VERSION) {
+                throw new IOException(indexFile + " has an unsupported index version (version == " + version + ")");
+            }
+            if (input.readInt() != INTERVAL_SECONDS) {
+                // written with a different interval, treat as missing
+                return null;
+            }
+            long fileSize = input.readLong();
+            if (fileSize != logFile.length()) {
+                return null;
+            }
+            int count = input.readInt();
+            if (count < 0) {
+                throw new IOException(indexFile + " is corrupt (count == " + count + ")");
+            }
+            long[] intervals = new long[count];
+            long[] startOffsets = new long[count];
+            long[] endOffsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                intervals[i] = input.readLong();
+                startOffsets[i] = input.readLong();
+                endOffsets[i] = input.readLong();
+            }
+            return new LogFileIndex(intervals, startOffsets, endOffsets, fileSize);
+        } finally {
+            input.close();
+        }
+    }
+
+    /**
+     * Writes the index next to its log file.
+     *
+     * @param logFile log file the index was built from
+     * @throws IOException
+     */
+    public void write(File logFile) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile(logFile))));
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(INTERVAL_SECONDS);
+            output.writeLong(fileSize);
+            output.writeInt(intervals.length);
+            for (int i = 0; i < intervals.length; i++) {
+                output.writeLong(intervals[i]);
+                output.writeLong(startOffsets[i]);
+                output.writeLong(endOffsets[i]);
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    /**
+     * @param from start of a time window
+     * @return offset of the first line that can hold a frame at or after the time, the file size if there is none
+     */
+    public long getStartOffset(Instant from) {
+        long interval = Math.floorDiv(from.getEpochSecond(), INTERVAL_SECONDS);
+        // first entry at or after the interval
+        int low = 0;
+        int high = intervals.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (intervals[middle] < interval) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == intervals.length) {
+            return fileSize;
+        }
+        return startOffsets[low];
+    }
+
+    /**
+     * @param to end of a time window
+     * @return offset just past the last line that can hold a frame at or before the time, 0 if there is none
+     */
+    public long getEndOffset(Instant to) {
+        long interval = Math.floorDiv(to.getEpochSecond(), INTERVAL_SECONDS);
+        // last entry at or before the interval
+        int low = 0;
+        int high = intervals.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (intervals[middle] <= interval) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (low == 0) {
+            return 0;
+        }
+        return endOffsets[low - 1];
+    }
+
+}
@@ -0,0 +1,499 @@
+package aircraftsurveillance;
+
+import aircraftsurveillance.transponder.TransponderMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Reads aircraft surveillance messages from a log file written using either KineticMessageLogger or SdrMessageLogger.
+ * The file is memory-mapped and each line is tokenized and parsed directly from the mapped bytes, so no String is
+ * created for a line or for any of its fields.  Files larger than a single mapping are mapped in consecutive windows.
+ * The log format is taken from the file name prefix, or if the prefix is not known, from the first valid line.
+ */
+class MappedSurveillanceLogFileReader implements FrameBatchReader {
+
+    private static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+    private static final long LINE_SLACK = 4096;  // mapped past the end of a range for the line that crosses it
+    private static final int FIELD_COUNT = 7;
+
+    // powers of ten that are exactly representable as a double
+    private static final double[] POWERS_OF_TEN = new double[]{
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long rangeEnd;
+    private long windowStart = 0;
+    private MappedByteBuffer window;
+    private LogFileFormat format;
+    private final FrameDecoder frameDecoder;
+
+    private int lineStart;
+    private int lineEnd;
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private boolean malformed;
+    private FrameBatch batch = null;  // set while readBatch() fills a batch
+    private final int[] scratch = new int[FrameBatch.MAX_FRAME_LENGTH];
+
+    /**
+     * Opens and maps the log file.
+     *
+     * @param file file to open
+     * @throws IOException
+     */
+    public MappedSurveillanceLogFileReader(File file) throws IOException {
+        this(file, new FrameDecoder());
+    }
+
+    /**
+     * Opens and maps the log file.
+     *
+     * @param file         file to open
+     * @param frameDecoder decoder used to turn the raw frames into messages
+     * @throws IOException
+     */
+    public MappedSurveillanceLogFileReader(File file, FrameDecoder frameDecoder) throws IOException {
+        this(file, 0, Long.MAX_VALUE, frameDecoder);
+    }
+
+    /**
+     * Opens and maps a byte range of the log file.  Only the lines that start within the range are read, so ranges
+     * that split a file at arbitrary offsets read every line exactly once between them.  If the file name prefix is
+     * not known, the log format is taken from the first valid line of the range.
+     *
+     * @param file         file to open
+     * @param rangeStart   offset of the first byte of the range
+     * @param rangeEnd     offset just past the last byte of the range
+     * @param frameDecoder decoder used to turn the raw frames into messages
+     * @throws IOException
+     */
+    public MappedSurveillanceLogFileReader(File file, long rangeStart, long rangeEnd, FrameDecoder frameDecoder) throws IOException {
+        this.frameDecoder = frameDecoder;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        fileSize = channel.size();
+        this.rangeEnd = Math.min(rangeEnd, fileSize);
+        format = LogFileFormat.fromFileName(file.getName());
+
+        if ((rangeStart <= 0) | (rangeStart >= fileSize)) {
+            map(Math.max(0, Math.min(rangeStart, fileSize)));
+        } else {
+            // a line that starts before the range belongs to the previous range
+            map(rangeStart - 1);
+            if (window.get(0) == '\n') {
+                window.position(1);
+            } else {
+                nextLine();
+            }
+        }
+    }
+
+    private void map(long position) throws IOException {
+        map(position, Math.max(rangeEnd - position, 0) + LINE_SLACK);
+    }
+
+    private void map(long position, long size) throws IOException {
+        size = Math.min(Math.min(size, fileSize - position), MAX_WINDOW_SIZE);
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     * Finds the next line in the mapped window, remapping the window if the line crosses its end.
+     *
+     * @return true if a line was found, false at the end of the file
+     * @throws IOException
+     */
+    private boolean nextLine() throws IOException {
+        if (windowStart + window.position() >= rangeEnd) {
+            return false;
+        }
+        while (true) {
+            int start = window.position();
+            int limit = window.limit();
+            for (int i = start; i < limit; i++) {
+                if (window.get(i) == '\n') {
+                    lineStart = start;
+                    lineEnd = i;
+                    window.position(i + 1);
+                    return true;
+                }
+            }
+
+            if (windowStart + limit < fileSize) {
+                if (start > 0) {
+                    map(windowStart + start);
+                } else if (limit < MAX_WINDOW_SIZE) {
+                    // a long line at the end of a range
+                    map(windowStart, 2L * limit);
+                } else {
+                    throw new IOException("line at offset " + windowStart + " does not fit in a single mapping");
+                }
+            } else if (start < limit) {
+                // last line without a trailing newline
+                lineStart = start;
+                lineEnd = limit;
+                window.position(limit);
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private AircraftSurveillanceMessage parseLine() {
+        int start = lineStart;
+        int end = lineEnd;
+
+        if ((start == end) || (window.get(start) == '#')) {
+            return null;
+        }
+
+        // trim the line
+        while ((start < end) && ((window.get(start) & 0xFF) <= ' ')) {
+            start++;
+        }
+        while ((end > start) && ((window.get(end - 1) & 0xFF) <= ' ')) {
+            end--;
+        }
+
+        // split the line into tab separated fields
+        int count = 0;
+        int fieldBegin = start;
+        for (int i = start; i <= end; i++) {
+            if ((i == end) || (window.get(i) == '\t')) {
+                if (count == FIELD_COUNT) {
+                    return null;
+                }
+                fieldStart[count] = fieldBegin;
+                fieldEnd[count] = i;
+                count++;
+                fieldBegin = i + 1;
+            }
+        }
+        if (count != FIELD_COUNT) {
+            return null;
+        }
+
+        // trim each field
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            int s = fieldStart[i];
+            int e = fieldEnd[i];
+            while ((s < e) && ((window.get(s) & 0xFF) <= ' ')) {
+                s++;
+            }
+            while ((e > s) && ((window.get(e - 1) & 0xFF) <= ' ')) {
+                e--;
+            }
+            if (e - s < 1) {
+                return null;
+            }
+            fieldStart[i] = s;
+            fieldEnd[i] = e;
+        }
+        if (fieldEnd[0] - fieldStart[0] < 10) {
+            return null;
+        }
+
+        malformed = false;
+        long seconds = parseLong(fieldStart[0], fieldEnd[0]);
+        long microSeconds = parseLong(fieldStart[1], fieldEnd[1]);
+        double latitude = parseDouble(fieldStart[2], fieldEnd[2]);
+        double longitude = parseDouble(fieldStart[3], fieldEnd[3]);
+        double altitude = parseDouble(fieldStart[4], fieldEnd[4]);
+        if (malformed) {
+            frameDecoder.countMalformedLine();
+            return null;
+        }
+
+        if (format == null) {
+            format = LogFileFormat.detect(fieldEnd[5] - fieldStart[5], fieldEnd[6] - fieldStart[6]);
+            if (format == null) {
+                return null;
+            }
+        }
+
+        if (format == LogFileFormat.KINETIC) {
+            return parseKinetic(seconds, microSeconds, latitude, longitude, altitude);
+        } else {
+            return parseSdr(seconds, microSeconds, latitude, longitude, altitude);
+        }
+    }
+
+    private TransponderMessage parseKinetic(long seconds, long microSeconds, double latitude, double longitude, double altitude) {
+        int start = fieldStart[5];
+        int length = hexLength(start, fieldEnd[5]);
+        if (length < 1) {
+            return null;
+        }
+
+        // the whole packet is checked, so a line is skipped for the same bad digits as in SurveillanceLogFileReader
+        for (int i = 0; i < length; i++) {
+            hexByte(start, i);
+        }
+        if (malformed) {
+            frameDecoder.countMalformedLine();
+            return null;
+        }
+
+        // the Mode S or Mode AC data starts at byte 5 of the kinetic packet
+        int packetType = hexByte(start, 0);
+        if (packetType == 0x01 | packetType == 0x05) {
+            // Mode S long data
+            if (length < 19) {
+                return null;
+            }
+            return emit(seconds, microSeconds, latitude, longitude, altitude, start, 5, 14);
+        } else if (packetType == 0x07) {
+            // Mode S short data
+            if (length < 12) {
+                return null;
+            }
+            return emit(seconds, microSeconds, latitude, longitude, altitude, start, 5, 7);
+        } else if (packetType == 0x09) {
+            // Mode AC data
+            if (length < 7) {
+                return null;
+            }
+            // todo - might want to decode Mode AC data with ModeACMessage.parse()
+            return emit(seconds, microSeconds, latitude, longitude, altitude, start, 5, 2);
+        }
+        return null;
+    }
+
+    private TransponderMessage parseSdr(long seconds, long microSeconds, double latitude, double longitude, double altitude) {
+        int start = fieldStart[6];
+        int length = hexLength(start, fieldEnd[6]);
+        if (length < 1) {
+            return null;
+        }
+
+        return emit(seconds, microSeconds, latitude, longitude, altitude, start, 0, length);
+    }
+
+    /**
+     * Decodes the frame held in a hex field, or while a batch is being read, adds it to the batch without creating an
+     * array for it.
+     */
+    private TransponderMessage emit(long seconds, long microSeconds, double latitude, double longitude, double altitude, int start, int index, int length) {
+        if (batch == null) {
+            int[] data = hexBytes(start, index, length);
+            if (malformed) {
+                frameDecoder.countMalformedLine();
+                return null;
+            }
+            return frameDecoder.decode(Instant.ofEpochSecond(seconds, microSeconds * 1000), latitude, longitude, altitude, data);
+        }
+
+        if (length > FrameBatch.MAX_FRAME_LENGTH) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            scratch[i] = hexByte(start, index + i);
+        }
+        if (malformed) {
+            frameDecoder.countMalformedLine();
+        } else {
+            batch.add((seconds * 1000000L) + microSeconds, latitude, longitude, altitude, scratch, length);
+        }
+        return null;
+    }
+
+    /**
+     * @return number of bytes encoded in a "0x" prefixed hex field
+     */
+    private static int hexLength(int start, int end) {
+        return ((end - start) / 2) - 1;
+    }
+
+    private int hexByte(int start, int index) {
+        int offset = start + 2 + (index * 2);
+        int high = hexDigit(window.get(offset));
+        int low = hexDigit(window.get(offset + 1));
+        if ((high < 0) | (low < 0)) {
+            malformed = true;
+            return 0;
+        }
+        return (high << 4) | low;
+    }
+
+    private int[] hexBytes(int start, int index, int length) {
+        int[] data = new int[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = hexByte(start, index + i);
+        }
+        return data;
+    }
+
+    private static int hexDigit(byte b) {
+        if ((b >= '0') & (b <= '9')) {
+            return b - '0';
+        }
+        if ((b >= 'a') & (b <= 'f')) {
+            return b - 'a' + 10;
+        }
+        if ((b >= 'A') & (b <= 'F')) {
+            return b - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private long parseLong(int start, int end) {
+        boolean negative = false;
+        int i = start;
+        if ((window.get(i) == '-') | (window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+        if ((i == end) | (end - i > 18)) {
+            malformed = true;
+            return 0;
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = window.get(i) - '0';
+            if ((digit < 0) | (digit > 9)) {
+                malformed = true;
+                return 0;
+            }
+            value = (value * 10) + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a decimal number.  Numbers with at most 15 significant digits are converted with a single exact
+     * multiplication or division, which gives the same correctly rounded result as Double.parseDouble.  Anything
+     * else (exponents, long mantissas) falls back to Double.parseDouble.
+     */
+    private double parseDouble(int start, int end) {
+        boolean negative = false;
+        int i = start;
+        if ((window.get(i) == '-') | (window.get(i) == '+')) {
+            negative = window.get(i) == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int significantDigits = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            byte b = window.get(i);
+            if (b == '.' & !fraction) {
+                fraction = true;
+            } else if ((b >= '0') & (b <= '9')) {
+                digits++;
+                if ((mantissa != 0) | (b != '0')) {
+                    significantDigits++;
+                }
+                mantissa = (mantissa * 10) + (b - '0');
+                if (fraction) {
+                    exponent--;
+                }
+                if (significantDigits > 15) {
+                    return parseDoubleSlow(start, end);
+                }
+            } else {
+                return parseDoubleSlow(start, end);
+            }
+        }
+        if (digits == 0) {
+            malformed = true;
+            return 0;
+        }
+
+        double value = (double) mantissa;
+        if (-exponent < POWERS_OF_TEN.length) {
+            value /= POWERS_OF_TEN[-exponent];
+        } else {
+            return parseDoubleSlow(start, end);
+        }
+        return negative ? -value : value;
+    }
+
+    private double parseDoubleSlow(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = window.get(start + i);
+        }
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            malformed = true;
+            return 0;
+        }
+    }
+
+    /**
+     * @return offset in the file of the first byte of the line read last
+     */
+    long getLineOffset() {
+        return windowStart + lineStart;
+    }
+
+    /**
+     * @return offset in the file just past the line read last, including its newline
+     */
+    long getLineEndOffset() {
+        return Math.min(windowStart + lineEnd + 1, fileSize);
+    }
+
+    /**
+     * Reads the next aircraft surveillance message.
+     *
+     * @return the next AircraftSurveillanceMessage or null if no more messages are available
+     * @throws IOException
+     */
+    public AircraftSurveillanceMessage read() throws IOException {
+        while (nextLine()) {
+            AircraftSurveillanceMessage aircraftSurveillanceMessage = parseLine();
+            if (aircraftSurveillanceMessage != null) {
+                return aircraftSurveillanceMessage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next frames into a batch without decoding them.  The frame bytes are parsed straight into the batch,
+     * so nothing is allocated.
+     *
+     * @param batch batch to fill
+     * @return number of frames read, 0 if no more frames are available
+     * @throws IOException
+     */
+    public int readBatch(FrameBatch batch) throws IOException {
+        batch.clear();
+        this.batch = batch;
+        try {
+            while (!batch.isFull() && nextLine()) {
+                parseLine();
+            }
+        } finally {
+            this.batch = null;
+        }
+        return batch.size();
+    }
+
+    /**
+     * Closes the log file.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+}
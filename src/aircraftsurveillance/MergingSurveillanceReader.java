@@ -0,0 +1,214 @@
+package aircraftsurveillance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads several log files concurrently and merges their messages into a single stream in timestamp order.
+ * Each file is read and decoded on its own worker thread, which hands the messages over in batches through a bounded
+ * queue.  The files must be sorted by the start time in their names.  A file joins the merge before the first message
+ * after its start time is returned, so files that overlap in time, such as the logs of different receivers, are
+ * interleaved, while only the files that are being merged or read ahead are open at once.
+ */
+class MergingSurveillanceReader implements SurveillanceReader {
+
+    private static final int BATCH_SIZE = 1024;
+    private static final int QUEUE_BATCHES = 16;
+    private static final List<AircraftSurveillanceMessage> END_OF_FILE = new ArrayList<AircraftSurveillanceMessage>(0);
+
+    private final File[] files;
+    private final int readAhead;
+    private final boolean memoryMappedInput;
+    private final FrameDecoder frameDecoder;
+
+    private int nextFile = 0;
+    private final LinkedList<FileWorker> readAheadWorkers = new LinkedList<FileWorker>();  // started, not yet merged
+    private final PriorityQueue<FileWorker> mergeQueue = new PriorityQueue<FileWorker>();  // by next message timestamp
+
+    /**
+     * @param files             log files sorted by the start time in their names
+     * @param readAhead         number of files read ahead of the merge, on top of the files being merged
+     * @param memoryMappedInput true to read log files through MappedSurveillanceLogFileReader
+     * @param frameDecoder      decoder whose settings are copied for each file and that receives the counts of
+     *                          every file once it has been merged
+     */
+    public MergingSurveillanceReader(File[] files, int readAhead, boolean memoryMappedInput, FrameDecoder frameDecoder) {
+        if (readAhead < 1) {
+            throw new IllegalArgumentException("read ahead must be at least one file (read ahead == " + readAhead + ")");
+        }
+        this.files = files;
+        this.readAhead = readAhead;
+        this.memoryMappedInput = memoryMappedInput;
+        this.frameDecoder = frameDecoder;
+    }
+
+    @Override
+    public AircraftSurveillanceMessage read() throws IOException {
+        while (true) {
+            startWorkers();
+
+            FileWorker head = mergeQueue.peek();
+            if (!readAheadWorkers.isEmpty()) {
+                FileWorker worker = readAheadWorkers.getFirst();
+                if ((head == null) || !worker.startTime.isAfter(head.message.getTimestamp())) {
+                    readAheadWorkers.removeFirst();
+                    if (worker.advance()) {
+                        mergeQueue.add(worker);
+                    }
+                    continue;
+                }
+            }
+
+            if (head == null) {
+                return null;
+            }
+
+            mergeQueue.poll();
+            AircraftSurveillanceMessage message = head.message;
+            if (head.advance()) {
+                mergeQueue.add(head);
+            }
+            return message;
+        }
+    }
+
+    private void startWorkers() {
+        while ((readAheadWorkers.size() < readAhead) & (nextFile < files.length)) {
+            FileWorker worker = new FileWorker(nextFile, files[nextFile]);
+            nextFile++;
+            worker.start();
+            readAheadWorkers.add(worker);
+        }
+    }
+
+    /**
+     * Stops the workers of the files that have not been read to the end.
+     */
+    @Override
+    public void close() throws IOException {
+        for (FileWorker worker : readAheadWorkers) {
+            worker.interrupt();
+        }
+        for (FileWorker worker : mergeQueue) {
+            worker.interrupt();
+        }
+        readAheadWorkers.clear();
+        mergeQueue.clear();
+        nextFile = files.length;
+    }
+
+    private class FileWorker extends Thread implements Comparable<FileWorker> {
+        private final int index;
+        private final File file;
+        private final Instant startTime;
+        private final FrameDecoder workerFrameDecoder = frameDecoder.copySettings();
+        private final BlockingQueue<List<AircraftSurveillanceMessage>> batchQueue = new ArrayBlockingQueue<List<AircraftSurveillanceMessage>>(QUEUE_BATCHES);
+        private RuntimeException failure = null;
+
+        // merge side
+        private List<AircraftSurveillanceMessage> batch = null;
+        private int batchIndex = 0;
+        private AircraftSurveillanceMessage message = null;
+
+        FileWorker(int index, File file) {
+            super("MergingSurveillanceReader-" + file.getName());
+            setDaemon(true);
+            this.index = index;
+            this.file = file;
+            startTime = Instant.ofEpochSecond(LogFileFormat.startEpochSecond(file.getName()));
+        }
+
+        @Override
+        public void run() {
+            SurveillanceReader surveillanceReader = null;
+            try {
+                surveillanceReader = SurveillanceSimulator.openReader(file, workerFrameDecoder, memoryMappedInput);
+
+                List<AircraftSurveillanceMessage> messages = new ArrayList<AircraftSurveillanceMessage>(BATCH_SIZE);
+                AircraftSurveillanceMessage aircraftSurveillanceMessage;
+                while ((aircraftSurveillanceMessage = surveillanceReader.read()) != null) {
+                    messages.add(aircraftSurveillanceMessage);
+                    if (messages.size() == BATCH_SIZE) {
+                        batchQueue.put(messages);
+                        messages = new ArrayList<AircraftSurveillanceMessage>(BATCH_SIZE);
+                    }
+                }
+                if (!messages.isEmpty()) {
+                    batchQueue.put(messages);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } catch (RuntimeException e) {
+                // rethrown on the merging thread
+                failure = e;
+            } catch (InterruptedException e) {
+                // closed before the end of the file
+                return;
+            } finally {
+                if (surveillanceReader != null) {
+                    try {
+                        surveillanceReader.close();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+
+            try {
+                batchQueue.put(END_OF_FILE);
+            } catch (InterruptedException e) {
+                // closed before the end of the file
+            }
+        }
+
+        /**
+         * Moves to the next message of the file, waiting for the worker if necessary.
+         *
+         * @return false if the end of the file was reached
+         * @throws InterruptedIOException if interrupted while waiting
+         */
+        boolean advance() throws InterruptedIOException {
+            if ((batch == null) || (batchIndex == batch.size())) {
+                try {
+                    batch = batchQueue.take();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("interrupted while waiting for " + file);
+                }
+                batchIndex = 0;
+            }
+
+            if (batch == END_OF_FILE) {
+                // the worker has finished with its decoder and failure once it has queued the end of the file
+                if (failure != null) {
+                    throw failure;
+                }
+                frameDecoder.addCounts(workerFrameDecoder);
+                message = null;
+                return false;
+            }
+
+            message = batch.get(batchIndex);
+            batch.set(batchIndex, null);
+            batchIndex++;
+            return true;
+        }
+
+        @Override
+        public int compareTo(FileWorker other) {
+            int c = message.getTimestamp().compareTo(other.message.getTimestamp());
+            if (c != 0) {
+                return c;
+            }
+            return Integer.compare(index, other.index);
+        }
+    }
+
+}
@@ -0,0 +1,348 @@
+package aircraftsurveillance;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads aircraft surveillance messages from the raw Mode S feeds of any number of receivers over TCP.  All feeds are
+ * non-blocking channels on one Selector, serviced by the thread that calls read(), so no thread is needed per feed.
+ * Frames are taken straight from each feed's ByteBuffer, a frame split across two reads is completed by the next
+ * read.  The feeds carry no wall clock time, so each frame is timestamped with the time it was read.  The position
+ * of each receiver is given when its feed is added.
+ * <p>
+ * A feed that is closed by the receiver or fails is dropped.  read() returns null once every feed has been dropped,
+ * the reader is closed or the reading thread is interrupted.
+ */
+class NetworkSurveillanceReader implements SurveillanceReader {
+
+    private static final int BUFFER_SIZE = 65536;
+    private static final byte BEAST_ESCAPE = 0x1A;
+    private static final int BEAST_HEADER_LENGTH = 7;  // MLAT timestamp and signal level
+    private static final int AVR_TIMESTAMP_DIGITS = 12;
+
+    private final Selector selector;
+    private final FrameDecoder frameDecoder;
+    private final ArrayDeque<AircraftSurveillanceMessage> pending = new ArrayDeque<AircraftSurveillanceMessage>();
+    private final List<SocketChannel> channels = new ArrayList<SocketChannel>();
+    private int feedCount = 0;
+    private volatile boolean closed = false;
+
+    /**
+     * @param frameDecoder decoder used to turn the raw frames into messages
+     * @throws IOException
+     */
+    public NetworkSurveillanceReader(FrameDecoder frameDecoder) throws IOException {
+        this.frameDecoder = frameDecoder;
+        selector = Selector.open();
+    }
+
+    /**
+     * Starts connecting to a receiver.  The connection completes during read().
+     *
+     * @param host              receiver host name or address
+     * @param port              TCP port of the feed
+     * @param format            framing of the feed
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @throws IOException
+     */
+    public void addFeed(String host, int port, FeedFormat format, double receiverLatitude, double receiverLongitude, double receiverAltitude) throws IOException {
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            Feed feed = new Feed(host + ":" + port, format, receiverLatitude, receiverLongitude, receiverAltitude);
+            if (channel.connect(new InetSocketAddress(host, port))) {
+                channel.register(selector, SelectionKey.OP_READ, feed);
+            } else {
+                channel.register(selector, SelectionKey.OP_CONNECT, feed);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        synchronized (channels) {
+            channels.add(channel);
+        }
+        feedCount++;
+    }
+
+    /**
+     * Reads the next aircraft surveillance message from any feed, waiting for data if necessary.
+     *
+     * @return the next AircraftSurveillanceMessage or null if no feed is left, or the reader was closed or interrupted
+     * @throws IOException
+     */
+    public AircraftSurveillanceMessage read() throws IOException {
+        while (pending.isEmpty()) {
+            if (closed | (feedCount == 0) | Thread.currentThread().isInterrupted()) {
+                return null;
+            }
+
+            try {
+                selector.select();
+            } catch (ClosedSelectorException e) {
+                return null;
+            }
+
+            Instant timestamp = Instant.now();
+            Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+            while (iterator.hasNext()) {
+                SelectionKey key = iterator.next();
+                iterator.remove();
+                service(key, timestamp);
+            }
+        }
+        return pending.poll();
+    }
+
+    private void service(SelectionKey key, Instant timestamp) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Feed feed = (Feed) key.attachment();
+        try {
+            if (key.isConnectable()) {
+                channel.finishConnect();
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+
+            int count = channel.read(feed.buffer);
+            if (count < 0) {
+                System.out.println("Feed " + feed.name + " closed");
+                drop(key);
+                return;
+            }
+
+            feed.buffer.flip();
+            if (feed.format == FeedFormat.BEAST) {
+                parseBeast(feed, timestamp);
+            } else {
+                parseAvr(feed, timestamp);
+            }
+            if ((feed.buffer.position() == 0) & (feed.buffer.limit() == feed.buffer.capacity())) {
+                // a full buffer without a single complete frame, the feed is not in the expected format
+                feed.buffer.clear();
+            } else {
+                feed.buffer.compact();
+            }
+        } catch (IOException e) {
+            System.out.println("Feed " + feed.name + " failed: " + e);
+            drop(key);
+        }
+    }
+
+    private void drop(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // the feed is gone either way
+        }
+        feedCount--;
+    }
+
+    /**
+     * Parses the complete Beast frames in the buffer, leaving the position at the start of an incomplete frame.
+     */
+    private void parseBeast(Feed feed, Instant timestamp) {
+        ByteBuffer buffer = feed.buffer;
+        int limit = buffer.limit();
+        int i = buffer.position();
+
+        while (i < limit) {
+            // synchronize on the escape that starts a frame
+            if (buffer.get(i) != BEAST_ESCAPE) {
+                i++;
+                continue;
+            }
+            if (i + 1 == limit) {
+                break;
+            }
+
+            int dataLength = beastDataLength(buffer.get(i + 1));
+            if (dataLength < 0) {
+                // an escaped 0x1A or a frame type that is not decoded, skip to the next escape
+                i += (buffer.get(i + 1) == BEAST_ESCAPE) ? 2 : 1;
+                continue;
+            }
+
+            // unescape the header and data
+            int[] data = new int[dataLength];
+            int j = i + 2;
+            int n = 0;
+            boolean complete = true;
+            boolean corrupt = false;
+            while (n < BEAST_HEADER_LENGTH + dataLength) {
+                if (j == limit) {
+                    complete = false;
+                    break;
+                }
+                byte b = buffer.get(j++);
+                if (b == BEAST_ESCAPE) {
+                    if (j == limit) {
+                        complete = false;
+                        break;
+                    }
+                    if (buffer.get(j) != BEAST_ESCAPE) {
+                        // the start of the next frame, this one is truncated
+                        corrupt = true;
+                        j--;
+                        break;
+                    }
+                    j++;
+                }
+                if (n >= BEAST_HEADER_LENGTH) {
+                    data[n - BEAST_HEADER_LENGTH] = b & 0xFF;
+                }
+                n++;
+            }
+
+            if (!complete) {
+                break;
+            }
+            if (!corrupt) {
+                decode(feed, timestamp, data);
+            }
+            i = j;
+        }
+
+        buffer.position(i);
+    }
+
+    /**
+     * @return number of frame bytes for a Beast frame type, or -1 for types that do not carry a Mode S frame
+     */
+    private static int beastDataLength(byte type) {
+        if (type == '1') {
+            return 2;  // Mode AC
+        } else if (type == '2') {
+            return 7;  // Mode S short
+        } else if (type == '3') {
+            return 14;  // Mode S long
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the complete AVR lines in the buffer, leaving the position at the start of an incomplete line.
+     */
+    private void parseAvr(Feed feed, Instant timestamp) {
+        ByteBuffer buffer = feed.buffer;
+        int limit = buffer.limit();
+        int i = buffer.position();
+
+        while (i < limit) {
+            byte start = buffer.get(i);
+            if ((start != '*') & (start != '@')) {
+                i++;
+                continue;
+            }
+
+            int end = -1;
+            for (int j = i + 1; j < limit; j++) {
+                byte b = buffer.get(j);
+                if (b == ';') {
+                    end = j;
+                    break;
+                }
+                if ((b == '*') | (b == '@') | (b == '\n')) {
+                    // a line without its terminator
+                    end = -2;
+                    i = j;
+                    break;
+                }
+            }
+            if (end == -2) {
+                continue;
+            }
+            if (end == -1) {
+                break;
+            }
+
+            int hexStart = i + 1;
+            if (start == '@') {
+                hexStart += AVR_TIMESTAMP_DIGITS;
+            }
+            int hexLength = end - hexStart;
+            if ((hexLength == 4) | (hexLength == 14) | (hexLength == 28)) {
+                int[] data = new int[hexLength / 2];
+                boolean valid = true;
+                for (int k = 0; k < data.length; k++) {
+                    int high = hexDigit(buffer.get(hexStart + (k * 2)));
+                    int low = hexDigit(buffer.get(hexStart + (k * 2) + 1));
+                    valid &= (high >= 0) & (low >= 0);
+                    data[k] = (high << 4) | low;
+                }
+                if (valid) {
+                    decode(feed, timestamp, data);
+                }
+            }
+            i = end + 1;
+        }
+
+        buffer.position(i);
+    }
+
+    private static int hexDigit(byte b) {
+        if ((b >= '0') & (b <= '9')) {
+            return b - '0';
+        }
+        if ((b >= 'a') & (b <= 'f')) {
+            return b - 'a' + 10;
+        }
+        if ((b >= 'A') & (b <= 'F')) {
+            return b - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private void decode(Feed feed, Instant timestamp, int[] data) {
+        AircraftSurveillanceMessage aircraftSurveillanceMessage = frameDecoder.decode(timestamp, feed.receiverLatitude, feed.receiverLongitude, feed.receiverAltitude, data);
+        if (aircraftSurveillanceMessage != null) {
+            pending.add(aircraftSurveillanceMessage);
+        }
+    }
+
+    /**
+     * Closes every feed.  A read() that is waiting for data returns null.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        closed = true;
+        synchronized (channels) {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+        }
+        selector.close();
+    }
+
+    private static class Feed {
+        private final String name;
+        private final FeedFormat format;
+        private final double receiverLatitude;
+        private final double receiverLongitude;
+        private final double receiverAltitude;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        Feed(String name, FeedFormat format, double receiverLatitude, double receiverLongitude, double receiverAltitude) {
+            this.name = name;
+            this.format = format;
+            this.receiverLatitude = receiverLatitude;
+            this.receiverLongitude = receiverLongitude;
+            this.receiverAltitude = receiverAltitude;
+        }
+    }
+
+}
@@ -0,0 +1,154 @@
+package aircraftsurveillance;
+
+import aircraftsurveillance.transponder.TransponderMessage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+
+/**
+ * Reads a log file or archive on a separate reader thread, so reading and tokenizing overlap with decoding and
+ * tracking on the calling thread.  The reader thread only extracts the raw frames and publishes them to a
+ * FrameRingBuffer; read() takes them from the ring and decodes them with the caller's FrameDecoder, so the parity
+ * checks and counts are the same as when the file is read directly.  The frame bytes are copied from the slot into a
+ * reused array per frame length, and the timestamp is only turned into an Instant for a frame that is decoded into a
+ * message, so handing a frame over allocates nothing.  The log lines the reader thread skips as malformed are counted
+ * in the ring and added to the caller's FrameDecoder on the calling thread once the end of the file is reached.
+ */
+class PipelinedSurveillanceReader implements SurveillanceReader {
+
+    /**
+     * Default number of frames in the ring.
+     */
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    private final FrameRingBuffer ringBuffer;
+    private final FrameDecoder frameDecoder;
+    private final Thread readerThread;
+    private final int[][] frameBuffers = new int[FrameRingBuffer.MAX_FRAME_LENGTH + 1][];  // indexed by frame length
+    private boolean endCounted = false;  // true once the counts of the reader thread were added to frameDecoder
+
+    /**
+     * Opens the file and starts the reader thread.
+     *
+     * @param file              log file or archive to read
+     * @param frameDecoder      decoder used to turn the raw frames into messages
+     * @param memoryMappedInput true to read a log file through MappedSurveillanceLogFileReader
+     * @param capacity          number of frames in the ring
+     * @throws IOException
+     */
+    public PipelinedSurveillanceReader(File file, FrameDecoder frameDecoder, boolean memoryMappedInput, int capacity) throws IOException {
+        this.frameDecoder = frameDecoder;
+        ringBuffer = new FrameRingBuffer(capacity);
+        for (int i = 0; i < frameBuffers.length; i++) {
+            frameBuffers[i] = new int[i];
+        }
+
+        // the reader hands every raw frame to this decoder, which publishes it to the ring instead of decoding it
+        final SurveillanceReader source = SurveillanceSimulator.openReader(file, new FrameDecoder() {
+            @Override
+            public TransponderMessage decode(Instant timestamp, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) {
+                if ((data == null) || (data.length > FrameRingBuffer.MAX_FRAME_LENGTH)) {
+                    // not a frame that can be decoded
+                    return null;
+                }
+                long timestampMicros = Math.multiplyExact(timestamp.getEpochSecond(), 1000000L) + (timestamp.getNano() / 1000);
+                try {
+                    ringBuffer.publish(timestampMicros, receiverLatitude, receiverLongitude, receiverAltitude, data);
+                } catch (InterruptedException e) {
+                    throw new ReaderClosedException();
+                }
+                return null;
+            }
+
+            @Override
+            public void countMalformedLine() {
+                // runs on the reader thread, the count is handed to the caller's decoder through the ring
+                ringBuffer.countMalformedLine();
+            }
+        }, memoryMappedInput);
+
+        readerThread = new Thread("read ahead " + file.getName()) {
+            @Override
+            public void run() {
+                Throwable failure = null;
+                try {
+                    while (source.read() != null) {
+                        // every frame is consumed by the decoder
+                    }
+                } catch (ReaderClosedException e) {
+                    // closed by the consumer
+                } catch (IOException e) {
+                    failure = e;
+                } catch (RuntimeException e) {
+                    failure = e;
+                } finally {
+                    try {
+                        source.close();
+                    } catch (IOException e) {
+                        // nothing more will be read
+                    }
+                    ringBuffer.finish(failure);
+                }
+            }
+        };
+        readerThread.setDaemon(true);
+        readerThread.start();
+    }
+
+    /**
+     * Reads the next aircraft surveillance message.
+     *
+     * @return the next AircraftSurveillanceMessage or null if no more messages are available
+     * @throws IOException if the reader thread failed
+     */
+    public AircraftSurveillanceMessage read() throws IOException {
+        while (true) {
+            int slot;
+            try {
+                slot = ringBuffer.take();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException("interrupted while waiting for " + readerThread.getName());
+            }
+
+            if (slot < 0) {
+                if (!endCounted) {
+                    frameDecoder.countMalformedLines(ringBuffer.getMalformedLineCount());
+                    endCounted = true;
+                }
+                Throwable failure = ringBuffer.getFailure();
+                if (failure instanceof IOException) {
+                    throw (IOException) failure;
+                }
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                }
+                return null;
+            }
+
+            int[] data = frameBuffers[ringBuffer.getLength(slot)];
+            ringBuffer.getData(slot, data);
+            TransponderMessage message = frameDecoder.decode(ringBuffer.getTimestampMicros(slot), ringBuffer.getReceiverLatitude(slot), ringBuffer.getReceiverLongitude(slot), ringBuffer.getReceiverAltitude(slot), data);
+            ringBuffer.release();
+
+            if (message != null) {
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Stops the reader thread.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        readerThread.interrupt();
+    }
+
+    private static class ReaderClosedException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+}
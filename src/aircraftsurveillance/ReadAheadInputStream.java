@@ -0,0 +1,170 @@
+package aircraftsurveillance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Input stream that reads its source on a separate thread, so producing the bytes, for example decompressing them,
+ * overlaps with consuming them.  The thread fills fixed size chunks and hands them over through a bounded queue, so
+ * it never reads more than a few chunks ahead of the consumer.
+ */
+class ReadAheadInputStream extends InputStream {
+
+    private static final int CHUNK_SIZE = 65536;
+    private static final int QUEUE_CHUNKS = 8;
+
+    private final BlockingQueue<Chunk> chunkQueue = new ArrayBlockingQueue<Chunk>(QUEUE_CHUNKS);
+    private final Thread thread;
+
+    private Chunk chunk = null;
+    private int position = 0;
+    private boolean endOfStream = false;
+
+    /**
+     * Starts reading the source.  The source is closed by the read-ahead thread once it has been read to the end or
+     * this stream is closed.
+     *
+     * @param source stream to read ahead of the consumer
+     * @param name   name of the read-ahead thread
+     */
+    public ReadAheadInputStream(final InputStream source, String name) {
+        thread = new Thread(name) {
+            @Override
+            public void run() {
+                readSource(source);
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void readSource(InputStream source) {
+        try {
+            while (true) {
+                Chunk next = new Chunk();
+                while (next.length < next.data.length) {
+                    int count = source.read(next.data, next.length, next.data.length - next.length);
+                    if (count < 0) {
+                        break;
+                    }
+                    next.length += count;
+                }
+
+                if (next.length < next.data.length) {
+                    // end of the source
+                    if (next.length > 0) {
+                        chunkQueue.put(next);
+                    }
+                    chunkQueue.put(new Chunk(null));
+                    return;
+                }
+                chunkQueue.put(next);
+            }
+        } catch (IOException e) {
+            try {
+                chunkQueue.put(new Chunk(e));
+            } catch (InterruptedException interrupted) {
+                // closed by the consumer
+            }
+        } catch (InterruptedException e) {
+            // closed by the consumer
+        } finally {
+            try {
+                source.close();
+            } catch (IOException e) {
+                // nothing more will be read from the source
+            }
+        }
+    }
+
+    /**
+     * @return false at the end of the stream
+     */
+    private boolean nextChunk() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        try {
+            chunk = chunkQueue.take();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("interrupted while waiting for " + thread.getName());
+        }
+        position = 0;
+        if (chunk.data == null) {
+            endOfStream = true;
+            if (chunk.exception != null) {
+                throw new IOException(thread.getName() + " failed", chunk.exception);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        while ((chunk == null) || (position == chunk.length)) {
+            if (!nextChunk()) {
+                return -1;
+            }
+        }
+        return chunk.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while ((chunk == null) || (position == chunk.length)) {
+            if (!nextChunk()) {
+                return -1;
+            }
+        }
+        int count = Math.min(length, chunk.length - position);
+        System.arraycopy(chunk.data, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        if ((chunk == null) || (chunk.data == null)) {
+            return 0;
+        }
+        return chunk.length - position;
+    }
+
+    /**
+     * Stops the read-ahead thread, which closes the source.
+     */
+    @Override
+    public void close() {
+        endOfStream = true;
+        chunk = null;
+        thread.interrupt();
+        chunkQueue.clear();
+    }
+
+    private static class Chunk {
+        private final byte[] data;
+        private int length = 0;
+        private final IOException exception;
+
+        Chunk() {
+            data = new byte[CHUNK_SIZE];
+            exception = null;
+        }
+
+        /**
+         * Creates the chunk that marks the end of the source, or a failure to read it.
+         */
+        Chunk(IOException exception) {
+            data = null;
+            this.exception = exception;
+        }
+    }
+
+}
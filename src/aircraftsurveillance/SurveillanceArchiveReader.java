@@ -0,0 +1,173 @@
+package aircraftsurveillance;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Instant;
+
+/**
+ * Reads aircraft surveillance messages from a binary surveillance archive written by SurveillanceArchiveWriter.
+ * Each record is read into a fixed size buffer, so there is no text to tokenize and no number to parse.
+ */
+class SurveillanceArchiveReader implements FrameBatchReader {
+
+    private final DataInputStream input;
+    private final FrameDecoder frameDecoder;
+    private final double[] receiverLatitudes;
+    private final double[] receiverLongitudes;
+    private final double[] receiverAltitudes;
+    private long remainingRecords;
+    private final byte[] record = new byte[SurveillanceArchiveWriter.RECORD_SIZE];
+
+    /**
+     * Opens the archive.
+     *
+     * @param file archive to open
+     * @throws IOException
+     */
+    public SurveillanceArchiveReader(File file) throws IOException {
+        this(file, new FrameDecoder());
+    }
+
+    /**
+     * Opens the archive and reads its receiver table.
+     *
+     * @param file         archive to open
+     * @param frameDecoder decoder used to turn the raw frames into messages
+     * @throws IOException if the file is not a complete archive
+     */
+    public SurveillanceArchiveReader(File file, FrameDecoder frameDecoder) throws IOException {
+        this.frameDecoder = frameDecoder;
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            long length = randomAccessFile.length();
+            if (length < SurveillanceArchiveWriter.HEADER_SIZE + 4 + SurveillanceArchiveWriter.TRAILER_SIZE) {
+                throw new IOException(file + " is not a surveillance archive");
+            }
+            if (randomAccessFile.readInt() != SurveillanceArchiveWriter.MAGIC) {
+                throw new IOException(file + " is not a surveillance archive");
+            }
+            int version = randomAccessFile.readInt();
+            if (version != SurveillanceArchiveWriter.VERSION) {
+                throw new IOException(file + " has an unsupported archive version (version == " + version + ")");
+            }
+
+            randomAccessFile.seek(length - SurveillanceArchiveWriter.TRAILER_SIZE);
+            long tableOffset = randomAccessFile.readLong();
+            if (randomAccessFile.readInt() != SurveillanceArchiveWriter.MAGIC) {
+                throw new IOException(file + " is not a complete surveillance archive");
+            }
+            long recordBytes = tableOffset - SurveillanceArchiveWriter.HEADER_SIZE;
+            if ((recordBytes < 0) | (recordBytes % SurveillanceArchiveWriter.RECORD_SIZE != 0) | (tableOffset > length - SurveillanceArchiveWriter.TRAILER_SIZE)) {
+                throw new IOException(file + " has a corrupt receiver table offset (offset == " + tableOffset + ")");
+            }
+            remainingRecords = recordBytes / SurveillanceArchiveWriter.RECORD_SIZE;
+
+            randomAccessFile.seek(tableOffset);
+            int receiverCount = randomAccessFile.readInt();
+            if ((receiverCount < 0) | (receiverCount > SurveillanceArchiveWriter.MAX_RECEIVERS)) {
+                throw new IOException(file + " has a corrupt receiver table (count == " + receiverCount + ")");
+            }
+            receiverLatitudes = new double[receiverCount];
+            receiverLongitudes = new double[receiverCount];
+            receiverAltitudes = new double[receiverCount];
+            for (int i = 0; i < receiverCount; i++) {
+                receiverLatitudes[i] = randomAccessFile.readDouble();
+                receiverLongitudes[i] = randomAccessFile.readDouble();
+                receiverAltitudes[i] = randomAccessFile.readDouble();
+            }
+        } finally {
+            randomAccessFile.close();
+        }
+
+        input = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 65536));
+        input.skipBytes(SurveillanceArchiveWriter.HEADER_SIZE);
+    }
+
+    /**
+     * Reads the next aircraft surveillance message.
+     *
+     * @return the next AircraftSurveillanceMessage or null if no more messages are available
+     * @throws IOException
+     */
+    public AircraftSurveillanceMessage read() throws IOException {
+        while (remainingRecords > 0) {
+            int receiver = readRecord();
+            int length = record[10] & 0xFF;
+
+            int[] data = new int[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = record[11 + i] & 0xFF;
+            }
+
+            long timestampMicros = recordTimestampMicros();
+            Instant timestamp = Instant.ofEpochSecond(Math.floorDiv(timestampMicros, 1000000L), Math.floorMod(timestampMicros, 1000000L) * 1000);
+            AircraftSurveillanceMessage aircraftSurveillanceMessage = frameDecoder.decode(timestamp, receiverLatitudes[receiver], receiverLongitudes[receiver], receiverAltitudes[receiver], data);
+            if (aircraftSurveillanceMessage != null) {
+                return aircraftSurveillanceMessage;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next records into a batch without decoding them.  The frame bytes are copied straight from the
+     * record, so nothing is allocated.
+     *
+     * @param batch batch to fill
+     * @return number of frames read, 0 if no more frames are available
+     * @throws IOException
+     */
+    public int readBatch(FrameBatch batch) throws IOException {
+        batch.clear();
+        while ((remainingRecords > 0) && !batch.isFull()) {
+            int receiver = readRecord();
+            batch.add(recordTimestampMicros(), receiverLatitudes[receiver], receiverLongitudes[receiver], receiverAltitudes[receiver], record, 11, record[10] & 0xFF);
+        }
+        return batch.size();
+    }
+
+    /**
+     * Reads the next record into the record buffer.
+     *
+     * @return the receiver of the record
+     */
+    private int readRecord() throws IOException {
+        try {
+            input.readFully(record);
+        } catch (EOFException e) {
+            throw new IOException("surveillance archive ends before its last record", e);
+        }
+        remainingRecords--;
+
+        int receiver = ((record[8] & 0xFF) << 8) | (record[9] & 0xFF);
+        int length = record[10] & 0xFF;
+        if ((receiver >= receiverLatitudes.length) | (length > SurveillanceArchiveWriter.MAX_FRAME_LENGTH)) {
+            throw new IOException("surveillance archive record is corrupt (receiver == " + receiver + ", length == " + length + ")");
+        }
+        return receiver;
+    }
+
+    private long recordTimestampMicros() {
+        long timestampMicros = 0;
+        for (int i = 0; i < 8; i++) {
+            timestampMicros = (timestampMicros << 8) | (record[i] & 0xFF);
+        }
+        return timestampMicros;
+    }
+
+    /**
+     * Closes the archive.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        input.close();
+    }
+
+}
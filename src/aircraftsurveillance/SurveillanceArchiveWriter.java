@@ -0,0 +1,200 @@
+package aircraftsurveillance;
+
+import aircraftsurveillance.transponder.TransponderMessage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes raw transponder frames to a binary surveillance archive, so they can be replayed without parsing text.
+ * <p>
+ * An archive starts with the magic number and format version.  It is followed by fixed width records of
+ * RECORD_SIZE bytes: the timestamp in microseconds since the epoch, the index of the receiver position in the
+ * receiver table, the frame length and the 2, 7 or 14 frame bytes padded to 14 bytes.  The receiver table is written
+ * after the last record, as a count followed by the latitude, longitude and altitude of each receiver.  The archive
+ * ends with the offset of the receiver table and the magic number again.  All values are big endian.
+ * <p>
+ * The frames are stored exactly as logged, before the parity check, so error correction and the decode policy are
+ * applied when the archive is read.
+ */
+class SurveillanceArchiveWriter {
+
+    public static final String EXTENSION = ".bin";
+    public static final int MAGIC = 0x41534152;  // "ASAR"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+    public static final int TRAILER_SIZE = 12;
+    public static final int MAX_FRAME_LENGTH = 14;
+    public static final int RECORD_SIZE = 8 + 2 + 1 + MAX_FRAME_LENGTH;
+    public static final int MAX_RECEIVERS = 0x10000;
+
+    private final DataOutputStream output;
+    private long offset = 0;
+    private long recordCount = 0;
+
+    private final List<double[]> receivers = new ArrayList<double[]>();
+    private int lastReceiver = -1;
+
+    /**
+     * Creates the archive and writes its header.
+     *
+     * @param file archive file to create
+     * @throws IOException
+     */
+    public SurveillanceArchiveWriter(File file) throws IOException {
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 65536));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        offset = HEADER_SIZE;
+    }
+
+    /**
+     * Converts a kinetic or SDR log file, plain or compressed, to an archive.  Lines that are not valid are not archived.
+     *
+     * @param logFile     log file to convert
+     * @param archiveFile archive file to create
+     * @return number of frames written to the archive
+     * @throws IOException
+     */
+    public static long convert(File logFile, File archiveFile) throws IOException {
+        final SurveillanceArchiveWriter writer = new SurveillanceArchiveWriter(archiveFile);
+        try {
+            // the reader hands every raw frame to the decoder, which writes it to the archive instead of decoding it
+            SurveillanceReader reader = SurveillanceSimulator.openReader(logFile, new FrameDecoder() {
+                @Override
+                public TransponderMessage decode(Instant timestamp, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) {
+                    if ((data == null) || (data.length > MAX_FRAME_LENGTH)) {
+                        // not a frame that can be decoded
+                        return null;
+                    }
+                    try {
+                        writer.write(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data);
+                    } catch (IOException e) {
+                        throw new ArchiveWriteException(e);
+                    }
+                    return null;
+                }
+            }, true);
+            try {
+                while (reader.read() != null) {
+                    // every frame is consumed by the decoder
+                }
+            } catch (ArchiveWriteException e) {
+                throw e.getCause();
+            } finally {
+                reader.close();
+            }
+        } finally {
+            writer.close();
+        }
+        return writer.getRecordCount();
+    }
+
+    /**
+     * @param logFile log file, plain or compressed
+     * @return the archive file with the same name as the log file, in the same directory
+     */
+    public static File archiveFile(File logFile) {
+        return new File(logFile.getParentFile(), LogFileFormat.baseName(logFile.getName()) + EXTENSION);
+    }
+
+    /**
+     * Writes a frame.
+     *
+     * @param timestamp         time the frame was received
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param data              int array representing the 2, 7 or 14 bytes of the frame
+     * @throws IOException
+     */
+    public void write(Instant timestamp, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) throws IOException {
+        if ((data == null) || (data.length > MAX_FRAME_LENGTH)) {
+            throw new IllegalArgumentException("frame is not valid (length == " + ((data == null) ? "null" : data.length) + ")");
+        }
+
+        long timestampMicros = Math.multiplyExact(timestamp.getEpochSecond(), 1000000L) + (timestamp.getNano() / 1000);
+        output.writeLong(timestampMicros);
+        output.writeShort(receiver(receiverLatitude, receiverLongitude, receiverAltitude));
+        output.writeByte(data.length);
+        for (int i = 0; i < MAX_FRAME_LENGTH; i++) {
+            output.writeByte((i < data.length) ? data[i] : 0);
+        }
+        offset += RECORD_SIZE;
+        recordCount++;
+    }
+
+    /**
+     * @return the index of the receiver in the receiver table, adding the receiver if it is not in the table
+     */
+    private int receiver(double latitude, double longitude, double altitude) throws IOException {
+        // a log is almost always from a single receiver, so check the last receiver first
+        if ((lastReceiver >= 0) && isReceiver(receivers.get(lastReceiver), latitude, longitude, altitude)) {
+            return lastReceiver;
+        }
+        for (int i = 0; i < receivers.size(); i++) {
+            if (isReceiver(receivers.get(i), latitude, longitude, altitude)) {
+                lastReceiver = i;
+                return i;
+            }
+        }
+        if (receivers.size() == MAX_RECEIVERS) {
+            throw new IOException("archive receiver table is full (" + MAX_RECEIVERS + " receivers)");
+        }
+        receivers.add(new double[]{latitude, longitude, altitude});
+        lastReceiver = receivers.size() - 1;
+        return lastReceiver;
+    }
+
+    private static boolean isReceiver(double[] receiver, double latitude, double longitude, double altitude) {
+        // compare the bits so the archive gives back exactly the logged values
+        return (Double.doubleToLongBits(receiver[0]) == Double.doubleToLongBits(latitude))
+                & (Double.doubleToLongBits(receiver[1]) == Double.doubleToLongBits(longitude))
+                & (Double.doubleToLongBits(receiver[2]) == Double.doubleToLongBits(altitude));
+    }
+
+    /**
+     * @return number of frames written so far
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Writes the receiver table and trailer and closes the archive.
+     *
+     * @throws IOException
+     */
+    public void close() throws IOException {
+        long tableOffset = offset;
+        output.writeInt(receivers.size());
+        for (double[] receiver : receivers) {
+            output.writeDouble(receiver[0]);
+            output.writeDouble(receiver[1]);
+            output.writeDouble(receiver[2]);
+        }
+        output.writeLong(tableOffset);
+        output.writeInt(MAGIC);
+        output.close();
+    }
+
+    private static class ArchiveWriteException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ArchiveWriteException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+}
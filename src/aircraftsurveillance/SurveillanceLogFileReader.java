@@ -1,93 +1,176 @@
 package aircraftsurveillance;
 
-import aircraftsurveillance.transponder.ModeSMessage;
 import aircraftsurveillance.transponder.TransponderMessage;
 
 import java.io.*;
 import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipInputStream;
 
 /**
  * Reads aircraft surveillance messages from a log file written using either KineticMessageLogger or SdrMessageLogger.
+ * Log files compressed with gzip (.txt.gz) or zip (.txt.zip, the log being the first entry) are decompressed while
+ * they are read, on a separate thread so decompression overlaps with parsing.
  */
-class SurveillanceLogFileReader {
+class SurveillanceLogFileReader implements FrameBatchReader {
+
+    private static final int FIELD_COUNT = 7;
+    private static final int INPUT_BUFFER_SIZE = 65536;
+
+    public static final String GZIP_EXTENSION = ".txt.gz";
+    public static final String ZIP_EXTENSION = ".txt.zip";
 
     private BufferedReader bufferedReader;
+    private LogFileFormat format;
+    private final FrameDecoder frameDecoder;
+    private FrameBatch batch = null;  // set while readBatch() fills a batch
 
     /**
-     * Opens the log file.
+     * Opens the log file.  The log format is taken from the file name prefix, or if the prefix is not known, from
+     * the first valid line in the file.
      *
      * @param file file to open
-     * @throws FileNotFoundException
+     * @throws IOException
      */
-    public SurveillanceLogFileReader(File file) throws FileNotFoundException {
-        bufferedReader = new BufferedReader(new FileReader(file));
+    public SurveillanceLogFileReader(File file) throws IOException {
+        this(file, new FrameDecoder());
     }
 
-    private static AircraftSurveillanceMessage parse(String line) {
-        if (line == null) {
-            return null;
+    /**
+     * Opens the log file.
+     *
+     * @param file         file to open
+     * @param frameDecoder decoder used to turn the raw frames into messages
+     * @throws IOException
+     */
+    public SurveillanceLogFileReader(File file, FrameDecoder frameDecoder) throws IOException {
+        if (isCompressed(file.getName())) {
+            bufferedReader = new BufferedReader(new InputStreamReader(openCompressed(file)), INPUT_BUFFER_SIZE);
+        } else {
+            bufferedReader = new BufferedReader(new FileReader(file));
         }
+        format = LogFileFormat.fromFileName(file.getName());
+        this.frameDecoder = frameDecoder;
+    }
+
+    /**
+     * Reads log lines from a stream instead of a file.
+     *
+     * @param input        stream of log lines
+     * @param format       log format, or null to take it from the first valid line
+     * @param frameDecoder decoder used to turn the raw frames into messages
+     */
+    SurveillanceLogFileReader(InputStream input, LogFileFormat format, FrameDecoder frameDecoder) {
+        bufferedReader = new BufferedReader(new InputStreamReader(input), INPUT_BUFFER_SIZE);
+        this.format = format;
+        this.frameDecoder = frameDecoder;
+    }
 
-        String[] split = line.trim().split("\t");
-        if (split.length == 7) {
-            if ((split[0].trim().length() >= 10) &
-                    (split[1].trim().length() >= 1) &
-                    (split[2].trim().length() >= 1) &
-                    (split[3].trim().length() >= 1) &
-                    (split[4].trim().length() >= 1) &
-                    (split[5].trim().length() >= 1) &
-                    (split[6].trim().length() >= 1)) {
-
-                if (split[5].trim().length() > split[6].trim().length()) {
-                    // kinetic format
-                    return parseKinetic(line);
-                } else if (split[5].trim().length() < split[6].trim().length()) {
-                    // sdr format
-                    return parseSdr(line);
+    /**
+     * @param fileName name of a log file
+     * @return true if the log file is compressed
+     */
+    public static boolean isCompressed(String fileName) {
+        return fileName.endsWith(GZIP_EXTENSION) | fileName.endsWith(ZIP_EXTENSION);
+    }
+
+    private static InputStream openCompressed(File file) throws IOException {
+        InputStream input = new BufferedInputStream(new FileInputStream(file), INPUT_BUFFER_SIZE);
+        try {
+            if (file.getName().endsWith(GZIP_EXTENSION)) {
+                input = new GZIPInputStream(input, INPUT_BUFFER_SIZE);
+            } else {
+                ZipInputStream zipInput = new ZipInputStream(input);
+                input = zipInput;
+                if (zipInput.getNextEntry() == null) {
+                    throw new IOException(file + " does not contain a log file");
                 }
             }
+        } catch (IOException e) {
+            input.close();
+            throw e;
         }
-
-        return null;
+        return new ReadAheadInputStream(input, "decompress " + file.getName());
     }
 
-    private static TransponderMessage parseKinetic(String line) {
+    private AircraftSurveillanceMessage parse(String line) {
         if (line == null) {
             return null;
         }
 
-        String[] split = line.trim().split("\t");
-        if (split.length != 7) {
+        String[] fields = split(line);
+        if (fields == null) {
             return null;
         }
 
-        String split0 = split[0].trim();
-        String split1 = split[1].trim();
-        String split2 = split[2].trim();
-        String split3 = split[3].trim();
-        String split4 = split[4].trim();
-        String split5 = split[5].trim();
-        String split6 = split[6].trim();
-
-        if ((split0.length() < 10) |
-                (split1.length() < 1) |
-                (split2.length() < 1) |
-                (split3.length() < 1) |
-                (split4.length() < 1) |
-                (split5.length() < 1) |
-                (split6.length() < 1)) {
+        if (format == null) {
+            format = LogFileFormat.detect(fields[5].length(), fields[6].length());
+            if (format == null) {
+                return null;
+            }
+        }
+
+        try {
+            if (format == LogFileFormat.KINETIC) {
+                return parseKinetic(fields);
+            } else {
+                return parseSdr(fields);
+            }
+        } catch (NumberFormatException e) {
+            // skipped and counted, the same as MappedSurveillanceLogFileReader does
+            frameDecoder.countMalformedLine();
             return null;
         }
+    }
 
-        long seconds = Long.parseLong(split0);
-        long microSeconds = Long.parseLong(split1);
-        Instant timestamp = Instant.ofEpochSecond(seconds, microSeconds * 1000);
-        double latitude = Double.parseDouble(split2);
-        double longitude = Double.parseDouble(split3);
-        double altitude = Double.parseDouble(split4);
-        int[] data = parseHexString(split5);
-        int crc[] = parseHexString(split6);
-        int crc2 = (crc[0] << 8) + crc[1];
+    /**
+     * Splits a line into its trimmed, tab separated fields in a single pass.
+     *
+     * @param line line to split
+     * @return the fields or null if the line does not have seven non-empty fields
+     */
+    private static String[] split(String line) {
+        String trimmed = line.trim();
+        String[] fields = new String[FIELD_COUNT];
+
+        int count = 0;
+        int fieldStart = 0;
+        while (count < FIELD_COUNT) {
+            int fieldEnd = trimmed.indexOf('\t', fieldStart);
+            if (fieldEnd < 0) {
+                fieldEnd = trimmed.length();
+            }
+            String field = trimmed.substring(fieldStart, fieldEnd).trim();
+            if (field.length() < 1) {
+                return null;
+            }
+            fields[count++] = field;
+            fieldStart = fieldEnd + 1;
+            if (fieldEnd == trimmed.length()) {
+                break;
+            }
+        }
+
+        if ((count != FIELD_COUNT) | (fieldStart <= trimmed.length())) {
+            return null;
+        }
+        if (fields[0].length() < 10) {
+            return null;
+        }
+
+        return fields;
+    }
+
+    private TransponderMessage parseKinetic(String[] fields) {
+        long seconds = Long.parseLong(fields[0]);
+        long microSeconds = Long.parseLong(fields[1]);
+        double latitude = Double.parseDouble(fields[2]);
+        double longitude = Double.parseDouble(fields[3]);
+        double altitude = Double.parseDouble(fields[4]);
+        int[] data = parseHexString(fields[5]);
+        if (data.length < 1) {
+            return null;
+        }
 
         int packetType = data[0];
         if (packetType == 0x01 | packetType == 0x05) {
@@ -99,7 +182,7 @@ class SurveillanceLogFileReader {
             int[] modeSData = new int[14];
             System.arraycopy(data, 5, modeSData, 0, 14);
 
-            return ModeSMessage.parse(timestamp, latitude, longitude, altitude, modeSData);
+            return emit(seconds, microSeconds, latitude, longitude, altitude, modeSData);
         } else if (packetType == 0x07) {
             // Mode S short data
             if (data.length < 12) {
@@ -109,7 +192,7 @@ class SurveillanceLogFileReader {
             int[] modeSData = new int[7];
             System.arraycopy(data, 5, modeSData, 0, modeSData.length);
 
-            return ModeSMessage.parse(timestamp, latitude, longitude, altitude, modeSData);
+            return emit(seconds, microSeconds, latitude, longitude, altitude, modeSData);
         } else if (packetType == 0x09) {
             // Mode AC data
             if (data.length < 7) {
@@ -121,54 +204,41 @@ class SurveillanceLogFileReader {
             modeCData[1] = data[6];
 
             // todo - might want to change this to ModeACMessage.parse()
-            return TransponderMessage.parse(timestamp, latitude, longitude, altitude, modeCData);
+            return emit(seconds, microSeconds, latitude, longitude, altitude, modeCData);
         }
 
         return null;
     }
 
-    private static TransponderMessage parseSdr(String line) {
-        if (line == null) {
+    private TransponderMessage parseSdr(String[] fields) {
+        long seconds = Long.parseLong(fields[0]);
+        long microSeconds = Long.parseLong(fields[1]);
+        double latitude = Double.parseDouble(fields[2]);
+        double longitude = Double.parseDouble(fields[3]);
+        double altitude = Double.parseDouble(fields[4]);
+        int[] data = parseHexString(fields[6]);
+        if (data.length < 1) {
             return null;
         }
 
-        String[] split = line.trim().split("\t");
-        if (split.length != 7) {
-            return null;
-        }
+        return emit(seconds, microSeconds, latitude, longitude, altitude, data);
+    }
 
-        String split0 = split[0].trim();
-        String split1 = split[1].trim();
-        String split2 = split[2].trim();
-        String split3 = split[3].trim();
-        String split4 = split[4].trim();
-        String split5 = split[5].trim();
-        String split6 = split[6].trim();
-
-        if ((split0.length() < 10) |
-                (split1.length() < 1) |
-                (split2.length() < 1) |
-                (split3.length() < 1) |
-                (split4.length() < 1) |
-                (split5.length() < 1) |
-                (split6.length() < 1)) {
-            return null;
+    /**
+     * Decodes a frame, or while a batch is being read, adds it to the batch.
+     */
+    private TransponderMessage emit(long seconds, long microSeconds, double latitude, double longitude, double altitude, int[] data) {
+        if (batch == null) {
+            return frameDecoder.decode(Instant.ofEpochSecond(seconds, microSeconds * 1000), latitude, longitude, altitude, data);
         }
-
-        long seconds = Long.parseLong(split0);
-        long microSeconds = Long.parseLong(split1);
-        Instant timestamp = Instant.ofEpochSecond(seconds, microSeconds * 1000);
-        double latitude = Double.parseDouble(split2);
-        double longitude = Double.parseDouble(split3);
-        double altitude = Double.parseDouble(split4);
-        int[] mlat = parseHexString(split5);
-        int[] data = parseHexString(split6);
-
-        return TransponderMessage.parse(timestamp, latitude, longitude, altitude, data);
+        if (data.length <= FrameBatch.MAX_FRAME_LENGTH) {
+            batch.add((seconds * 1000000L) + microSeconds, latitude, longitude, altitude, data, data.length);
+        }
+        return null;
     }
 
     private static int[] parseHexString(String hexString) {
-        int length = (hexString.length() / 2) - 1;
+        int length = Math.max((hexString.length() / 2) - 1, 0);
         int data[] = new int[length];
         for (int i = 0; i < data.length; i++) {
             String byteString = hexString.substring((i * 2) + 2, (i * 2) + 4);
@@ -196,6 +266,29 @@ class SurveillanceLogFileReader {
         return null;
     }
 
+    /**
+     * Reads the next frames into a batch without decoding them.
+     *
+     * @param batch batch to fill
+     * @return number of frames read, 0 if no more frames are available
+     * @throws IOException
+     */
+    public int readBatch(FrameBatch batch) throws IOException {
+        batch.clear();
+        this.batch = batch;
+        try {
+            String line;
+            while (!batch.isFull() && ((line = bufferedReader.readLine()) != null)) {
+                if (!line.startsWith("#")) {
+                    parse(line);
+                }
+            }
+        } finally {
+            this.batch = null;
+        }
+        return batch.size();
+    }
+
     /**
      * Closes the log file.
      *
@@ -0,0 +1,25 @@
+package aircraftsurveillance;
+
+import java.io.IOException;
+
+/**
+ * A source of aircraft surveillance messages, read one message at a time in log order.
+ */
+interface SurveillanceReader {
+
+    /**
+     * Reads the next aircraft surveillance message.
+     *
+     * @return the next AircraftSurveillanceMessage or null if no more messages are available
+     * @throws IOException
+     */
+    AircraftSurveillanceMessage read() throws IOException;
+
+    /**
+     * Closes the underlying source.
+     *
+     * @throws IOException
+     */
+    void close() throws IOException;
+
+}
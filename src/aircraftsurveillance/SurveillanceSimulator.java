@@ -1,29 +1,53 @@
 package aircraftsurveillance;
 
+import aircraftsurveillance.transponder.DecodePolicy;
 import aircraftsurveillance.transponder.ExtendedSquitter;
+import aircraftsurveillance.transponder.ModeSErrorCorrection;
+import aircraftsurveillance.transponder.ModeSFrameView;
 import aircraftsurveillance.transponder.ModeSMessage;
 import aircraftsurveillance.transponder.TransponderMessage;
 import aircraftsurveillance.transponder.adsb1090.Adsb1090Message;
+import aircraftsurveillance.transponder.adsb1090.Adsb1090View;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.net.InetAddress;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
 
 public class SurveillanceSimulator {
 
-    private final List<Aircraft> aircraftList = new LinkedList<Aircraft>();
+    private final AircraftMap aircraftMap = new AircraftMap();
+    private final PriorityQueue<TrackExpiry> trackExpiryQueue = new PriorityQueue<TrackExpiry>();
+    private final Map<Aircraft, TrackExpiry> queuedTrackExpiries = new HashMap<Aircraft, TrackExpiry>();  // the live entry of each aircraft
     private Instant simulationTime = Instant.MIN;
 
     private boolean trackEnabled = false;
     private File trackDirectory = null;
 
+    private boolean memoryMappedInput = false;
+    private int ingestionThreads = 0;
+    private ForkJoinPool chunkPool = null;
+    private int pipelineCapacity = 0;
+    private FrameBatch frameBatch = null;
+    private boolean localCprDecoding = false;
+    private double localCprReceiverRange = 0;
+    private Geodesy plausibilityGeodesy = Geodesy.VINCENTY;
+    private Geodesy receiverGeodesy = Geodesy.VINCENTY;
+    private NetworkSurveillanceReader networkReader = null;
+    private final FrameDecoder frameDecoder = new FrameDecoder();
+
     private static final Duration TRACK_TIME_LIMIT = Duration.ofMinutes(5);
+    private Duration warmUp = TRACK_TIME_LIMIT;
     private static final int MIN_TRACK_POINTS = 100;
     private long aircraftTrackCount = 0;
 
@@ -60,6 +84,124 @@ public class SurveillanceSimulator {
         trackEnabled = true;
     }
 
+    /**
+     * Reads log files through memory-mapped, zero-copy parsing instead of line by line through a BufferedReader.
+     */
+    public void enableMemoryMappedInput() {
+        memoryMappedInput = true;
+    }
+
+    /**
+     * Reads and decodes the files of a directory on several threads at once, merging their messages by timestamp so
+     * the aircraft are still updated in time order.
+     *
+     * @param threads number of files read ahead of the merge, each on its own thread
+     */
+    public void enableParallelIngestion(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("at least one ingestion thread is needed (threads == " + threads + ")");
+        }
+        ingestionThreads = threads;
+    }
+
+    /**
+     * Reads each file on a separate reader thread that hands the raw frames over through a ring buffer, so reading
+     * overlaps with decoding and tracking.
+     *
+     * @param capacity number of frames in the ring buffer
+     */
+    public void enablePipelinedInput(int capacity) {
+        pipelineCapacity = capacity;
+    }
+
+    /**
+     * Reads the frames of each file a batch at a time and checks their parity in one pass per batch.  The accepted
+     * frames are then routed by downlink format and type code straight from the batch: frames that are not DF17 are
+     * dropped and extended squitters whose type code the decode policy skips are counted without creating a message.
+     * The remaining frames are decoded one at a time through a reused view, airborne positions and velocities are
+     * applied to the aircraft straight from the view and only the other messages are parsed.  Readers that can not
+     * read batches are still read message by message.
+     *
+     * @param batchSize number of frames in a batch
+     */
+    public void enableBatchInput(int batchSize) {
+        frameBatch = new FrameBatch(batchSize);
+    }
+
+    /**
+     * Splits each log file into byte ranges that are parsed in parallel, so a single large file can use every core.
+     * Files are still read one after another.  The threads are stopped by endSimulation().
+     *
+     * @param threads number of threads the ranges are parsed on
+     */
+    public void enableChunkedParsing(int threads) {
+        if (chunkPool != null) {
+            chunkPool.shutdown();
+        }
+        chunkPool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Corrects extended squitters with a bad parity instead of dropping them.
+     *
+     * @param mode maximum number of bit errors to correct, two-bit correction is only applied to DF17
+     */
+    public void enableErrorCorrection(ModeSErrorCorrection.Mode mode) {
+        frameDecoder.setErrorCorrection(mode);
+    }
+
+    /**
+     * Decodes airborne positions from single reports against the last position of the track, so only the first
+     * position of a track needs an even/odd pair.  If the receivers can not receive aircraft beyond half a CPR zone,
+     * about 180 NM, the first position is also decoded from a single report against the receiver, as a provisional
+     * position that the first even/odd pair confirms or corrects.
+     *
+     * @param receiverRange reception range of the receivers in nautical miles, 0 or more than 180 to always wait
+     *                      for an even/odd pair
+     */
+    public void enableLocalCprDecoding(double receiverRange) {
+        localCprDecoding = true;
+        localCprReceiverRange = receiverRange;
+    }
+
+    /**
+     * Selects the method used for the distances that decide whether a decoded position is plausible, against limits
+     * of hundreds of nautical miles, so Geodesy.HAVERSINE is accurate enough.  The default is Geodesy.VINCENTY.
+     *
+     * @param geodesy method for the plausibility checks
+     */
+    public void setPlausibilityGeodesy(Geodesy geodesy) {
+        plausibilityGeodesy = geodesy;
+    }
+
+    /**
+     * Selects the method used for the distance and bearing of each aircraft from the receiver, which feed the track
+     * files and the receiver distance statistics.  The default is Geodesy.VINCENTY.
+     *
+     * @param geodesy method for the distance and bearing from the receiver, for example a new LocalTangentPlane
+     */
+    public void setReceiverGeodesy(Geodesy geodesy) {
+        receiverGeodesy = geodesy;
+    }
+
+    /**
+     * Limits full decoding to the ADS-B type codes selected by the policy.  Messages with other type codes are still
+     * counted in the message statistics, but do not create or update any aircraft.
+     *
+     * @param decodePolicy type codes to decode
+     */
+    public void setDecodePolicy(DecodePolicy decodePolicy) {
+        frameDecoder.setDecodePolicy(decodePolicy);
+    }
+
+    /**
+     * Reads the log files of a directory in the order of the timestamps in their names.  A file is read if its name
+     * starts with the prefix of a LogFileFormat and ends with .txt, .txt.gz, .txt.zip or .bin, for example
+     * sdr.1500000000.txt.zip.  A compressed log has to keep the .txt before its compression extension, a file such as
+     * sdr.1500000000.zip is ignored.  A log file that has been archived to .bin is only read from its archive.
+     *
+     * @param directory directory of log files
+     */
     public void addDirectory(File directory) {
         if (directory == null) {
             return;
@@ -73,9 +215,15 @@ public class SurveillanceSimulator {
 
         Instant start = Instant.now();
         System.out.println("Reading input from " + directory + "  " + start);
+        if (ingestionThreads > 0) {
+            addMessages(new MergingSurveillanceReader(files, ingestionThreads, memoryMappedInput, frameDecoder));
+            System.out.println("  Processed " + files.length + " files  " + Duration.between(start, Instant.now()));
+            return;
+        }
+
         Instant previous = start;
         for (File file : files) {
-            if (file.getName().endsWith(".txt")) {
+            if (isLogFile(file.getName())) {
                 System.out.print("  Processing " + file);
                 addFile(file);
                 Instant now = Instant.now();
@@ -85,17 +233,179 @@ public class SurveillanceSimulator {
         }
     }
 
+    /**
+     * Sets how long before the start of a time window messages are read, so CPR position pairs and tracks that are
+     * active at the start of the window are established.  The default is the time a track is kept without updates.
+     *
+     * @param warmUp time read before the start of a window
+     */
+    public void setWarmUp(Duration warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Reads the messages of a directory in a time window, starting the warm-up time before the window.  The files are
+     * selected by name as in addDirectory(File) and read one after another.  Log files with an index written by
+     * writeIndexes() are read from the offset of the window, other files are read from the start and their messages
+     * outside the window skipped.  Frames outside the window are dropped before their parity is checked, so the message
+     * counts and parity statistics do not depend on whether a file has an index.  The malformed line count does: it
+     * covers the lines that are read, the whole file without an index and only the indexed byte range with one.
+     *
+     * @param directory directory of log files
+     * @param from      start of the window
+     * @param to        end of the window, inclusive
+     */
+    public void addDirectory(File directory, Instant from, Instant to) {
+        if (directory == null) {
+            return;
+        }
+        if (!directory.isDirectory()) {
+            return;
+        }
+
+        File[] files = directory.listFiles();
+        files = filterAndSortFiles(files);
+        Instant begin = from.minus(warmUp);
+
+        Instant start = Instant.now();
+        System.out.println("Reading input from " + directory + " between " + begin + " and " + to + "  " + start);
+        Instant previous = start;
+        frameDecoder.setTimeWindow(begin, to);
+        for (File file : files) {
+            if (LogFileFormat.startEpochSecond(file.getName()) > to.getEpochSecond()) {
+                // the file and all files after it start after the window
+                break;
+            }
+
+            System.out.print("  Processing " + file);
+            try {
+                addMessages(openReader(file, begin, to), begin, to);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            Instant now = Instant.now();
+            System.out.println("  " + Duration.between(previous, now) + " (" + Duration.between(start, now) + ")");
+            previous = now;
+        }
+        frameDecoder.setTimeWindow(Instant.MIN, Instant.MAX);
+    }
+
+    /**
+     * Tracks aircraft live from the log a logger is writing, waiting for new lines at the end of the log and moving
+     * on to the next log when the logger rotates, until the calling thread is interrupted.
+     *
+     * @param file log file to follow, or the directory the logger writes to, to follow its latest log file
+     */
+    public void follow(File file) {
+        if (file == null) {
+            return;
+        }
+        if (file.isDirectory()) {
+            file = FollowingSurveillanceLogFileReader.latestFile(file);
+            if (file == null) {
+                return;
+            }
+        }
+
+        System.out.println("Following " + file + "  " + Instant.now());
+        try {
+            addMessages(new FollowingSurveillanceLogFileReader(file, frameDecoder));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Connects to the raw Mode S feed of a receiver.  Messages are read from all connected feeds by runNetworkFeeds().
+     *
+     * @param host              receiver host name or address
+     * @param port              TCP port of the feed
+     * @param format            framing of the feed
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     */
+    public void addNetworkFeed(String host, int port, FeedFormat format, double receiverLatitude, double receiverLongitude, double receiverAltitude) {
+        try {
+            if (networkReader == null) {
+                networkReader = new NetworkSurveillanceReader(frameDecoder);
+            }
+            networkReader.addFeed(host, port, format, receiverLatitude, receiverLongitude, receiverAltitude);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Tracks aircraft live from the feeds added by addNetworkFeed(), until every feed has closed or the calling thread
+     * is interrupted.
+     */
+    public void runNetworkFeeds() {
+        if (networkReader == null) {
+            return;
+        }
+
+        System.out.println("Reading network feeds  " + Instant.now());
+        addMessages(networkReader);
+        networkReader = null;
+    }
+
+    /**
+     * Tracks aircraft from a captured raw Mode S feed, served on a local port and read through the same network path
+     * as a live feed.  Because a feed carries no wall clock time, the messages are timestamped as they are read.
+     *
+     * @param captureFile       capture of a Beast or AVR feed, for example written by FeedReplayServer.writeCapture()
+     * @param format            framing of the capture
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     */
+    public void replayNetworkFeed(File captureFile, FeedFormat format, double receiverLatitude, double receiverLongitude, double receiverAltitude) {
+        try {
+            FeedReplayServer replayServer = new FeedReplayServer(captureFile);
+            try {
+                System.out.println("Replaying " + captureFile + "  " + Instant.now());
+                NetworkSurveillanceReader reader = new NetworkSurveillanceReader(frameDecoder);
+                reader.addFeed(InetAddress.getLoopbackAddress().getHostAddress(), replayServer.getPort(), format, receiverLatitude, receiverLongitude, receiverAltitude);
+                addMessages(reader);
+            } finally {
+                replayServer.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
     public void addFile(File file) {
         try {
-            SurveillanceLogFileReader surveillanceLogFileReader = new SurveillanceLogFileReader(file);
+            addMessages(openReader(file));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void addMessages(SurveillanceReader surveillanceReader) {
+        addMessages(surveillanceReader, Instant.MIN, Instant.MAX);
+    }
+
+    private void addMessages(SurveillanceReader surveillanceReader, Instant from, Instant to) {
+        if ((frameBatch != null) && (surveillanceReader instanceof FrameBatchReader)) {
+            addBatches((FrameBatchReader) surveillanceReader, from, to);
+            return;
+        }
+        try {
             AircraftSurveillanceMessage aircraftSurveillanceMessage;
-            while ((aircraftSurveillanceMessage = surveillanceLogFileReader.read()) != null) {
-                simulationTime = aircraftSurveillanceMessage.getTimestamp();
+            while ((aircraftSurveillanceMessage = surveillanceReader.read()) != null) {
+                Instant timestamp = aircraftSurveillanceMessage.getTimestamp();
+                if (timestamp.isBefore(from) | timestamp.isAfter(to)) {
+                    continue;
+                }
+                simulationTime = timestamp;
                 updateTimeStats();
-                trimList();
+                expireTracks();
                 update(aircraftSurveillanceMessage);
             }
-            surveillanceLogFileReader.close();
+            surveillanceReader.close();
         } catch (FileNotFoundException e) {
             e.printStackTrace();
         } catch (IOException e) {
@@ -103,9 +413,124 @@ public class SurveillanceSimulator {
         }
     }
 
+    private void addBatches(FrameBatchReader frameBatchReader, Instant from, Instant to) {
+        DecodePolicy decodePolicy = frameDecoder.getDecodePolicy();
+        ModeSFrameView frameView = ModeSFrameView.forCurrentThread();
+        try {
+            while (frameBatchReader.readBatch(frameBatch) > 0) {
+                frameDecoder.checkParity(frameBatch);
+                for (int i = 0; i < frameBatch.size(); i++) {
+                    if (frameBatch.isRejected(i) || (frameBatch.getDownlinkFormat(i) != 17) || !frameBatch.isExtendedSquitter(i)) {
+                        // only 112-bit DF17 extended squitters are decoded
+                        continue;
+                    }
+
+                    Instant timestamp = frameBatch.getTimestamp(i);
+                    if (timestamp.isBefore(from) | timestamp.isAfter(to)) {
+                        continue;
+                    }
+                    simulationTime = timestamp;
+                    updateTimeStats();
+                    expireTracks();
+
+                    int typeCode = frameBatch.getTypeCode(i);
+                    if (!decodePolicy.isDecoded(typeCode)) {
+                        countSkippedExtendedSquitter(typeCode);
+                        continue;
+                    }
+                    updateExtendedSquitter(frameDecoder.decode(frameBatch, i, frameView), timestamp);
+                }
+            }
+            frameBatchReader.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private SurveillanceReader openReader(File file) throws IOException {
+        if ((chunkPool != null) && file.getName().endsWith(".txt")) {
+            return new ChunkedSurveillanceLogFileReader(file, frameDecoder, chunkPool, ChunkedSurveillanceLogFileReader.DEFAULT_CHUNK_SIZE);
+        }
+        if (pipelineCapacity > 0) {
+            return new PipelinedSurveillanceReader(file, frameDecoder, memoryMappedInput, pipelineCapacity);
+        }
+        return openReader(file, frameDecoder, memoryMappedInput);
+    }
+
+    /**
+     * Opens a log file for a time window, from the offsets in its index if it has one.
+     */
+    private SurveillanceReader openReader(File file, Instant from, Instant to) throws IOException {
+        if (file.getName().endsWith(".txt")) {
+            LogFileIndex index = LogFileIndex.read(file);
+            if (index != null) {
+                return new MappedSurveillanceLogFileReader(file, index.getStartOffset(from), index.getEndOffset(to), frameDecoder);
+            }
+        }
+        return openReader(file);
+    }
+
+    /**
+     * Opens a log file or archive with the reader for its type.
+     *
+     * @param file              log file or archive to open
+     * @param frameDecoder      decoder used to turn the raw frames into messages
+     * @param memoryMappedInput true to read a log file through MappedSurveillanceLogFileReader
+     * @return the reader
+     * @throws IOException
+     */
+    static SurveillanceReader openReader(File file, FrameDecoder frameDecoder, boolean memoryMappedInput) throws IOException {
+        if (file.getName().endsWith(SurveillanceArchiveWriter.EXTENSION)) {
+            return new SurveillanceArchiveReader(file, frameDecoder);
+        } else if (memoryMappedInput & !SurveillanceLogFileReader.isCompressed(file.getName())) {
+            return new MappedSurveillanceLogFileReader(file, frameDecoder);
+        } else {
+            return new SurveillanceLogFileReader(file, frameDecoder);
+        }
+    }
+
+    /**
+     * Converts every log file in a directory to a binary archive in the same directory.  Once a log file has an
+     * archive, addDirectory() reads the archive instead of the log file.
+     *
+     * @param directory directory of log files
+     */
+    public static void writeArchives(File directory) {
+        if (directory == null) {
+            return;
+        }
+        if (!directory.isDirectory()) {
+            return;
+        }
+
+        File[] files = filterAndSortFiles(directory.listFiles());
+
+        Instant start = Instant.now();
+        System.out.println("Writing archives in " + directory + "  " + start);
+        for (File file : files) {
+            if (!file.getName().endsWith(SurveillanceArchiveWriter.EXTENSION)) {
+                File archiveFile = SurveillanceArchiveWriter.archiveFile(file);
+                System.out.print("  Archiving " + file);
+                try {
+                    long count = SurveillanceArchiveWriter.convert(file, archiveFile);
+                    System.out.println("  " + count + " frames, " + file.length() + " -> " + archiveFile.length() + " bytes");
+                } catch (IOException e) {
+                    System.out.println();
+                    e.printStackTrace();
+                    archiveFile.delete();
+                }
+            }
+        }
+    }
+
     public void endSimulation() {
         simulationTime = Instant.MAX;
-        trimList();
+        expireTracks();
+
+        if (chunkPool != null) {
+            chunkPool.shutdown();
+            chunkPool = null;
+        }
     }
 
     public void writeStats(File file) {
@@ -117,6 +542,10 @@ public class SurveillanceSimulator {
             pw.println("Transponder Messages: " + transponderCount);
             pw.println("Mode S Messages: " + modeSCount);
             pw.println("Extended Squitter Messages: " + extendedSquitterCount);
+            pw.println("Parity Errors: " + frameDecoder.getParityErrorCount());
+            pw.println("Single Bit Corrections: " + frameDecoder.getSingleBitCorrectionCount());
+            pw.println("Double Bit Corrections: " + frameDecoder.getDoubleBitCorrectionCount());
+            pw.println("Malformed Lines: " + frameDecoder.getMalformedLineCount());
             pw.println();
 
             pw.println("Time Statistics");
@@ -171,9 +600,15 @@ public class SurveillanceSimulator {
 
         lastMessageTimestamp = simulationTime;
 
-        Duration gap = Duration.between(previousMessageTimestamp, simulationTime);
-        if (gap.compareTo(maxMessageGap) > 0) {
-            maxMessageGap = gap;
+        // runs for every frame, so the gap is compared as seconds and nanoseconds and only a new maximum is a Duration
+        long gapSeconds = simulationTime.getEpochSecond() - previousMessageTimestamp.getEpochSecond();
+        int gapNanos = simulationTime.getNano() - previousMessageTimestamp.getNano();
+        if (gapNanos < 0) {
+            gapSeconds--;
+            gapNanos += 1000000000;
+        }
+        if ((gapSeconds > maxMessageGap.getSeconds()) | ((gapSeconds == maxMessageGap.getSeconds()) & (gapNanos > maxMessageGap.getNano()))) {
+            maxMessageGap = Duration.ofSeconds(gapSeconds, gapNanos);
             maxMessageGapStart = previousMessageTimestamp;
             maxMessageGapEnd = simulationTime;
         }
@@ -216,6 +651,46 @@ public class SurveillanceSimulator {
         }
     }
 
+    /**
+     * Counts an extended squitter whose type code the decode policy skips, the same as update() counts it once it
+     * has been parsed into a message.
+     */
+    private void countSkippedExtendedSquitter(int typeCode) {
+        surveillanceCount++;
+        transponderCount++;
+        modeSCount++;
+        extendedSquitterCount++;
+        adsb1090TypeCounts[typeCode]++;
+    }
+
+    /**
+     * Counts and applies a DF17 extended squitter read through a view.  The airborne positions and velocities that
+     * Aircraft applies straight from the view are counted here the same as update() counts their messages, any other
+     * frame is parsed and passed to update().
+     */
+    private void updateExtendedSquitter(ModeSFrameView view, Instant timestamp) {
+        if (view == null) {
+            return;
+        }
+
+        Adsb1090View adsb1090View = view.getAdsb1090View();
+        if ((adsb1090View == null) || !Aircraft.isAppliedFromView(adsb1090View)) {
+            update(view.toMessage(frameDecoder.getDecodePolicy()));
+            return;
+        }
+
+        surveillanceCount++;
+        transponderCount++;
+        modeSCount++;
+        extendedSquitterCount++;
+        adsb1090TypeCounts[adsb1090View.getTypeCode()]++;
+
+        Aircraft aircraft = findAircraft(view.getAddressAnnounced());
+        Instant previousUpdateTimestamp = aircraft.getUpdateTimestamp();
+        aircraft.update(view, timestamp);
+        trackAircraft(aircraft, previousUpdateTimestamp);
+    }
+
     private void updateExtendedSquitter(ExtendedSquitter extendedSquitter) {
         if (extendedSquitter == null) {
             return;
@@ -224,60 +699,162 @@ public class SurveillanceSimulator {
         extendedSquitterCount++;
 
         Adsb1090Message adsb1090Message = extendedSquitter.getExtendedSquitterMessage();
-        if (adsb1090Message != null) {
-            adsb1090TypeCounts[adsb1090Message.getTypeCode()]++;
+        if ((adsb1090Message != null) | extendedSquitter.isExtendedSquitterMessageSkipped()) {
+            adsb1090TypeCounts[extendedSquitter.getTypeCode()]++;
         }
-
-        for (Aircraft aircraft : aircraftList) {
-            if (aircraft.getAddress() == extendedSquitter.getAddressAnnounced()) {
-                aircraft.update(extendedSquitter);
-                return;
-            }
+        if (extendedSquitter.isExtendedSquitterMessageSkipped()) {
+            // not selected by the decode policy, counted but not tracked
+            return;
         }
 
-        Aircraft aircraft = new Aircraft(extendedSquitter.getAddressAnnounced());
+        Aircraft aircraft = findAircraft(extendedSquitter.getAddressAnnounced());
+        Instant previousUpdateTimestamp = aircraft.getUpdateTimestamp();
         aircraft.update(extendedSquitter);
-        aircraftList.add(aircraft);
+        trackAircraft(aircraft, previousUpdateTimestamp);
     }
 
-    private void trimList() {
-        Instant timestamp = simulationTime;
+    /**
+     * @return the tracked aircraft with the address, or a new aircraft that trackAircraft() adds once it is updated
+     */
+    private Aircraft findAircraft(int address) {
+        Aircraft aircraft = aircraftMap.get(address);
+        if (aircraft == null) {
+            aircraft = new Aircraft(address, localCprDecoding, localCprReceiverRange);
+            aircraft.setGeodesy(plausibilityGeodesy, receiverGeodesy);
+        }
+        return aircraft;
+    }
 
-        for (int i = 0; i < aircraftList.size(); i++) {
-            Aircraft aircraft = aircraftList.get(i);
-            if (Duration.between(aircraft.getUpdateTimestamp(), timestamp).compareTo(TRACK_TIME_LIMIT) >= 0) {
-                List<AircraftState> collapsedStateList = aircraft.getCollapsedAircraftStateList();
+    /**
+     * Tracks an aircraft after it was updated, queueing its deadline if it is new or the update moved it earlier.
+     *
+     * @param previousUpdateTimestamp update time of the aircraft before the update, Instant.MIN for a new aircraft
+     */
+    private void trackAircraft(Aircraft aircraft, Instant previousUpdateTimestamp) {
+        if (previousUpdateTimestamp == Instant.MIN) {
+            aircraftMap.put(aircraft.getAddress(), aircraft);
+            queueTrackExpiry(new TrackExpiry(aircraft));
+        } else if (aircraft.getUpdateTimestamp().isBefore(previousUpdateTimestamp)) {
+            // an out of order message moved the deadline earlier than the one already queued
+            queueTrackExpiry(new TrackExpiry(aircraft));
+        }
+    }
 
-                if (collapsedStateList.size() >= MIN_TRACK_POINTS) {
-                    aircraftTrackCount++;
+    /**
+     * Queues the deadline of an aircraft, replacing the deadline queued for it before.  The replaced entry stays in
+     * the queue until it reaches the head, where it is dropped as stale.
+     */
+    private void queueTrackExpiry(TrackExpiry trackExpiry) {
+        TrackExpiry queued = queuedTrackExpiries.get(trackExpiry.aircraft);
+        if ((queued != null) && (queued.deadline.compareTo(trackExpiry.deadline) <= 0)) {
+            // the deadline already queued comes first and is checked against the update time when it is reached
+            return;
+        }
+        queuedTrackExpiries.put(trackExpiry.aircraft, trackExpiry);
+        trackExpiryQueue.add(trackExpiry);
+    }
 
-                    if (trackEnabled) {
-                        aircraft.writeKmlFile(trackDirectory);
-                    }
-                }
+    /**
+     * Retires the tracks whose TRACK_TIME_LIMIT deadline has passed.  Each aircraft has one live deadline, taken when
+     * the deadline was queued, so only the head of the queue is examined for each message.  An out of order message
+     * can queue an earlier deadline, the entry it replaces is skipped when it reaches the head.  An aircraft that was
+     * updated after its deadline was queued is put back with its new deadline instead of being retired.
+     */
+    private void expireTracks() {
+        TrackExpiry trackExpiry;
+        while (((trackExpiry = trackExpiryQueue.peek()) != null) && (trackExpiry.deadline.compareTo(simulationTime) <= 0)) {
+            trackExpiryQueue.poll();
+
+            Aircraft aircraft = trackExpiry.aircraft;
+            if (queuedTrackExpiries.get(aircraft) != trackExpiry) {
+                // replaced by an earlier deadline, or already retired through one
+                continue;
+            }
 
-                if (collapsedStateList.size() >= MIN_PERFORMANCE_POINTS) {
-                    for (AircraftState aircraftState : collapsedStateList) {
-                        int distance = (int) Math.floor(aircraftState.getDistanceFromReceiver());
-                        if (distance < distanceHistogram.length) {
-                            distanceHistogram[distance]++;
-                        }
-                    }
+            Instant deadline = aircraft.getUpdateTimestamp().plus(TRACK_TIME_LIMIT);
+            if (deadline.compareTo(simulationTime) > 0) {
+                TrackExpiry requeued = new TrackExpiry(aircraft, deadline);
+                queuedTrackExpiries.put(aircraft, requeued);
+                trackExpiryQueue.add(requeued);
+                continue;
+            }
+
+            retireTrack(aircraft);
+        }
+    }
+
+    private void retireTrack(Aircraft aircraft) {
+        List<AircraftState> collapsedStateList = aircraft.getCollapsedAircraftStateList();
+
+        if (collapsedStateList.size() >= MIN_TRACK_POINTS) {
+            aircraftTrackCount++;
+
+            if (trackEnabled) {
+                aircraft.writeKmlFile(trackDirectory);
+            }
+        }
+
+        if (collapsedStateList.size() >= MIN_PERFORMANCE_POINTS) {
+            for (AircraftState aircraftState : collapsedStateList) {
+                int distance = (int) Math.floor(aircraftState.getDistanceFromReceiver());
+                if (distance < distanceHistogram.length) {
+                    distanceHistogram[distance]++;
                 }
+            }
+        }
+
+        aircraftMap.remove(aircraft.getAddress());
+        queuedTrackExpiries.remove(aircraft);
+    }
 
-                aircraftList.remove(i);
-                i--;
+    /**
+     * Writes a time index next to every plain text log file in a directory, for addDirectory(directory, from, to).
+     *
+     * @param directory directory of log files
+     */
+    public static void writeIndexes(File directory) {
+        if (directory == null) {
+            return;
+        }
+        if (!directory.isDirectory()) {
+            return;
+        }
+
+        File[] files = filterAndSortFiles(directory.listFiles());
+
+        Instant start = Instant.now();
+        System.out.println("Writing indexes in " + directory + "  " + start);
+        for (File file : files) {
+            if (file.getName().endsWith(".txt")) {
+                System.out.print("  Indexing " + file);
+                try {
+                    LogFileIndex.build(file).write(file);
+                    System.out.println();
+                } catch (IOException e) {
+                    System.out.println();
+                    e.printStackTrace();
+                    LogFileIndex.indexFile(file).delete();
+                }
             }
         }
     }
 
+    private static boolean isLogFile(String fileName) {
+        return fileName.endsWith(".txt") | SurveillanceLogFileReader.isCompressed(fileName) | fileName.endsWith(SurveillanceArchiveWriter.EXTENSION);
+    }
+
     private static File[] filterAndSortFiles(File[] files) {
         List<File> fileList = new LinkedList<File>();
 
         for (File file : files) {
-            if (file.getName().startsWith("sdr.") | file.getName().startsWith("kinetic.")) {
-                if (file.getName().endsWith(".txt")) {
+            if (LogFileFormat.fromFileName(file.getName()) != null) {
+                if (file.getName().endsWith(SurveillanceArchiveWriter.EXTENSION)) {
                     fileList.add(file);
+                } else if (isLogFile(file.getName())) {
+                    // a log file that has been archived is read from its archive
+                    if (!SurveillanceArchiveWriter.archiveFile(file).isFile()) {
+                        fileList.add(file);
+                    }
                 }
             }
         }
@@ -294,18 +871,26 @@ public class SurveillanceSimulator {
     private static class FileComparator implements Comparator<File> {
         @Override
         public int compare(File file1, File file2) {
-            String name1 = file1.getName();
-            String name2 = file2.getName();
+            return Long.compare(LogFileFormat.startEpochSecond(file1.getName()), LogFileFormat.startEpochSecond(file2.getName()));
+        }
+    }
+
+    private static class TrackExpiry implements Comparable<TrackExpiry> {
+        private final Instant deadline;
+        private final Aircraft aircraft;
 
-            int i = name1.indexOf(".");
-            int j = name1.lastIndexOf(".");
-            int timestamp1 = Integer.parseInt(name1.substring(i + 1, j));
+        TrackExpiry(Aircraft aircraft) {
+            this(aircraft, aircraft.getUpdateTimestamp().plus(TRACK_TIME_LIMIT));
+        }
 
-            i = name2.indexOf(".");
-            j = name2.lastIndexOf(".");
-            int timestamp2 = Integer.parseInt(name2.substring(i + 1, j));
+        TrackExpiry(Aircraft aircraft, Instant deadline) {
+            this.deadline = deadline;
+            this.aircraft = aircraft;
+        }
 
-            return Integer.compare(timestamp1, timestamp2);
+        @Override
+        public int compareTo(TrackExpiry other) {
+            return deadline.compareTo(other.deadline);
         }
     }
 }
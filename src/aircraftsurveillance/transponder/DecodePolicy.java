@@ -0,0 +1,68 @@
+package aircraftsurveillance.transponder;
+
+/**
+ * Selects which ADS-B type codes are fully decoded.  An extended squitter whose type code is not selected keeps its
+ * header fields and type code, but its ADS-B message is not decoded.  This lets a job that only needs some message
+ * types, for example positions and velocities, skip the cost of decoding everything else.
+ */
+public class DecodePolicy {
+
+    /**
+     * Policy that decodes every type code.
+     */
+    public static final DecodePolicy ALL = new DecodePolicy();
+
+    private final boolean[] decodedTypeCodes = new boolean[32];
+
+    /**
+     * Creates a policy that decodes every type code.
+     */
+    public DecodePolicy() {
+        for (int i = 0; i < decodedTypeCodes.length; i++) {
+            decodedTypeCodes[i] = true;
+        }
+    }
+
+    /**
+     * Creates a policy that only decodes the listed type codes.
+     *
+     * @param typeCodes type codes to decode, each in the range 0-31
+     * @throws IllegalArgumentException if a type code is out of range
+     */
+    public DecodePolicy(int... typeCodes) {
+        for (int typeCode : typeCodes) {
+            if ((typeCode < 0) | (typeCode >= decodedTypeCodes.length)) {
+                throw new IllegalArgumentException("type code is not valid (type code == " + typeCode + ")");
+            }
+            decodedTypeCodes[typeCode] = true;
+        }
+    }
+
+    /**
+     * Creates a policy that only decodes a range of type codes.
+     *
+     * @param firstTypeCode first type code to decode
+     * @param lastTypeCode  last type code to decode, inclusive
+     * @return the policy
+     * @throws IllegalArgumentException if the range is not within 0-31
+     */
+    public static DecodePolicy range(int firstTypeCode, int lastTypeCode) {
+        if ((firstTypeCode < 0) | (lastTypeCode > 31) | (firstTypeCode > lastTypeCode)) {
+            throw new IllegalArgumentException("type code range is not valid (" + firstTypeCode + "-" + lastTypeCode + ")");
+        }
+        int[] typeCodes = new int[lastTypeCode - firstTypeCode + 1];
+        for (int i = 0; i < typeCodes.length; i++) {
+            typeCodes[i] = firstTypeCode + i;
+        }
+        return new DecodePolicy(typeCodes);
+    }
+
+    /**
+     * @param typeCode 5-bit ADS-B type code
+     * @return true if messages with this type code should be decoded
+     */
+    public boolean isDecoded(int typeCode) {
+        return decodedTypeCodes[typeCode & 0x1F];
+    }
+
+}
@@ -1,20 +1,33 @@
 package aircraftsurveillance.transponder;
 
 import aircraftsurveillance.transponder.adsb1090.Adsb1090Message;
-import aircraftsurveillance.transponder.adsb1090.Adsb1090ParseException;
 
 import java.time.Instant;
 
 public class ExtendedSquitter extends ModeSMessage {
     private int capability = 0;
     private int addressAnnounced = 0;
+    private int typeCode = 0;
     private Adsb1090Message extendedSquitterMessage = null;
+    private boolean extendedSquitterMessageSkipped = false;
     private int parity;
 
     public static ExtendedSquitter parse(Instant timestamp, Double receiverLatitude, Double receiverLongitude, Double receiverAltitude, int[] data) {
+        return parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data, DecodePolicy.ALL);
+    }
+
+    /**
+     * Parses an extended squitter, decoding its ADS-B message only if the policy selects its type code.
+     *
+     * @param decodePolicy type codes to decode, the header fields and type code are always decoded
+     */
+    public static ExtendedSquitter parse(Instant timestamp, Double receiverLatitude, Double receiverLongitude, Double receiverAltitude, int[] data, DecodePolicy decodePolicy) {
         if (data == null) {
             return null;
         }
+        if (data.length != 14) {
+            return null;
+        }
 
         ExtendedSquitter extendedSquitter = new ExtendedSquitter();
         extendedSquitter.timestamp = timestamp;
@@ -22,21 +35,24 @@ public class ExtendedSquitter extends ModeSMessage {
         extendedSquitter.receiverLongitude = receiverLongitude;
         extendedSquitter.receiverAltitude = receiverAltitude;
 
-        extendedSquitter.dataFormat = extractInt(data, 0, 5);
-        extendedSquitter.capability = extractInt(data, 5, 3);
-        extendedSquitter.addressAnnounced = extractInt(data, 8, 24);
+        // the 112 bits of the message are held in two 56-bit words
+        long high = toLong(data, 0, 7);  // bits 0-55
+        long low = toLong(data, 7, 7);  // bits 56-111
+
+        extendedSquitter.dataFormat = (int) (high >>> 51);
+        extendedSquitter.capability = (int) (high >>> 48) & 0x7;
+        extendedSquitter.addressAnnounced = (int) (high >>> 24) & 0xFFFFFF;
 
         // message is from bit index 32 to 87
-        int[] adsbData = new int[7];
-        System.arraycopy(data, 4, adsbData, 0, 7);
-        try {
-            extendedSquitter.extendedSquitterMessage = Adsb1090Message.parse(adsbData);
-        } catch (Adsb1090ParseException e) {
-            //e.printStackTrace();
-            extendedSquitter.extendedSquitterMessage = null;
+        long adsbData = ((high & 0xFFFFFF) << 32) | (low >>> 24);
+        extendedSquitter.typeCode = (int) (adsbData >>> 51);
+        if (decodePolicy.isDecoded(extendedSquitter.typeCode)) {
+            extendedSquitter.extendedSquitterMessage = Adsb1090Message.tryParse(adsbData);
+        } else {
+            extendedSquitter.extendedSquitterMessageSkipped = true;
         }
 
-        extendedSquitter.parity = extractInt(data, 88, 24);
+        extendedSquitter.parity = (int) low & 0xFFFFFF;
 
         return extendedSquitter;
     }
@@ -49,10 +65,27 @@ public class ExtendedSquitter extends ModeSMessage {
         return addressAnnounced;
     }
 
+    /**
+     * @return 5-bit type code of the ADS-B message, available even if the message was not decoded
+     */
+    public int getTypeCode() {
+        return typeCode;
+    }
+
+    /**
+     * @return the ADS-B message, or null if it could not be decoded or was skipped by the decode policy
+     */
     public Adsb1090Message getExtendedSquitterMessage() {
         return extendedSquitterMessage;
     }
 
+    /**
+     * @return true if the ADS-B message was not decoded because the decode policy did not select its type code
+     */
+    public boolean isExtendedSquitterMessageSkipped() {
+        return extendedSquitterMessageSkipped;
+    }
+
     public int getParity() {
         return parity;
     }
@@ -0,0 +1,123 @@
+package aircraftsurveillance.transponder;
+
+/**
+ * Corrects bit errors in 112-bit extended squitters using the Mode S parity.
+ * The CRC is linear, so the syndrome of a damaged message is the syndrome of its error pattern alone.  The syndromes
+ * of every single-bit and two-bit error pattern are precomputed into a hash table, which turns correction into a
+ * single lookup instead of trying each bit flip in turn.  The downlink format bits are never corrected, so a
+ * correction can not turn one format into another.
+ */
+public class ModeSErrorCorrection {
+
+    public enum Mode {
+        OFF,
+        SINGLE_BIT,
+        DOUBLE_BIT
+    }
+
+    private static final int MESSAGE_BITS = 112;
+    private static final int FIRST_CORRECTABLE_BIT = 5;  // bits 0-4 are the downlink format
+
+    // open addressing hash table from syndrome to error pattern, 0 marks an empty slot
+    private static final int TABLE_SIZE = 1 << 14;
+    private static final int AMBIGUOUS = -1;
+    private static final int[] syndromes = new int[TABLE_SIZE];
+    private static final int[] patterns = new int[TABLE_SIZE];
+
+    static {
+        int[] bitSyndromes = new int[MESSAGE_BITS];
+        int[] data = new int[MESSAGE_BITS / 8];
+        for (int i = FIRST_CORRECTABLE_BIT; i < MESSAGE_BITS; i++) {
+            data[i / 8] = 0x80 >>> (i % 8);
+            bitSyndromes[i] = ModeSParity.syndrome(data);
+            data[i / 8] = 0;
+        }
+
+        for (int i = FIRST_CORRECTABLE_BIT; i < MESSAGE_BITS; i++) {
+            put(bitSyndromes[i], encode(1, i, 0));
+        }
+        for (int i = FIRST_CORRECTABLE_BIT; i < MESSAGE_BITS; i++) {
+            for (int j = i + 1; j < MESSAGE_BITS; j++) {
+                put(bitSyndromes[i] ^ bitSyndromes[j], encode(2, i, j));
+            }
+        }
+    }
+
+    private static int encode(int bitCount, int bit1, int bit2) {
+        return (bitCount << 16) | (bit2 << 8) | bit1;
+    }
+
+    private static int slot(int syndrome) {
+        // spread the 24-bit syndrome over the table with a multiplicative hash
+        return (syndrome * 0x9E3779B9) >>> (32 - 14);
+    }
+
+    private static void put(int syndrome, int pattern) {
+        int i = slot(syndrome);
+        while (syndromes[i] != 0) {
+            if (syndromes[i] == syndrome) {
+                // keep the pattern with fewer bits, mark equal weight collisions as uncorrectable
+                if ((patterns[i] != AMBIGUOUS) && ((patterns[i] >>> 16) >= (pattern >>> 16))) {
+                    patterns[i] = AMBIGUOUS;
+                }
+                return;
+            }
+            i = (i + 1) & (TABLE_SIZE - 1);
+        }
+        syndromes[i] = syndrome;
+        patterns[i] = pattern;
+    }
+
+    private static int get(int syndrome) {
+        int i = slot(syndrome);
+        while (syndromes[i] != 0) {
+            if (syndromes[i] == syndrome) {
+                return patterns[i];
+            }
+            i = (i + 1) & (TABLE_SIZE - 1);
+        }
+        return 0;
+    }
+
+    /**
+     * Attempts to correct a damaged 112-bit DF17 or DF18 message in place.  Two-bit correction is only applied to
+     * DF17 messages, DF18 messages are limited to single-bit correction.
+     *
+     * @param data     int array representing a 14 byte Mode S message, modified if the message is corrected
+     * @param syndrome syndrome of the message as returned by ModeSParity.syndrome
+     * @param mode     maximum number of bits to correct
+     * @return number of bits corrected, 0 if the syndrome is 0, or -1 if the message can not be corrected
+     */
+    public static int correct(int[] data, int syndrome, Mode mode) {
+        if (syndrome == 0) {
+            return 0;
+        }
+        if ((mode == Mode.OFF) | (data.length != MESSAGE_BITS / 8)) {
+            return -1;
+        }
+
+        int pattern = get(syndrome);
+        if ((pattern == 0) | (pattern == AMBIGUOUS)) {
+            return -1;
+        }
+
+        int bitCount = pattern >>> 16;
+        int maxBitCount = 1;
+        if ((mode == Mode.DOUBLE_BIT) & ((data[0] >>> 3) == 17)) {
+            maxBitCount = 2;
+        }
+        if (bitCount > maxBitCount) {
+            return -1;
+        }
+
+        int bit1 = pattern & 0xFF;
+        data[bit1 / 8] ^= 0x80 >>> (bit1 % 8);
+        if (bitCount == 2) {
+            int bit2 = (pattern >>> 8) & 0xFF;
+            data[bit2 / 8] ^= 0x80 >>> (bit2 % 8);
+        }
+
+        return bitCount;
+    }
+
+}
@@ -0,0 +1,237 @@
+package aircraftsurveillance.transponder;
+
+import aircraftsurveillance.transponder.adsb1090.Adsb1090View;
+
+import java.time.Instant;
+
+/**
+ * Mutable, reusable view of a raw 56-bit or 112-bit Mode S frame.
+ * Wrapping a frame packs its bytes into two longs, the header fields and the ADS-B message are then read from those
+ * longs on demand.  The view, including the ADS-B view returned by getAdsb1090View(), is reused for every frame, so
+ * nothing is allocated per frame.  A view is only valid until the next frame is wrapped, use toMessage() to create an
+ * immutable message that can be retained.  Views are not thread safe, forCurrentThread() returns one view per thread.
+ */
+public class ModeSFrameView {
+
+    private static final ThreadLocal<ModeSFrameView> threadViews = new ThreadLocal<ModeSFrameView>() {
+        @Override
+        protected ModeSFrameView initialValue() {
+            return new ModeSFrameView();
+        }
+    };
+
+    private long timestampMicros;
+    private double receiverLatitude;
+    private double receiverLongitude;
+    private double receiverAltitude;
+
+    private int length = 0;
+    private long high;  // bits 0-55
+    private long low;  // bits 56-111 of a 112-bit frame
+
+    private final Adsb1090View adsb1090View = new Adsb1090View();
+
+    /**
+     * @return the view owned by the calling thread
+     */
+    public static ModeSFrameView forCurrentThread() {
+        return threadViews.get();
+    }
+
+    /**
+     * Points the view at a new frame.  The data array is not retained.
+     *
+     * @param timestampMicros   time the frame was received in microseconds since the epoch
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param data              int array representing the 7 or 14 bytes of the frame
+     * @return true if the frame was wrapped, false if the data is not a Mode S frame
+     */
+    public boolean wrap(long timestampMicros, double receiverLatitude, double receiverLongitude, double receiverAltitude, int[] data) {
+        if (data == null) {
+            length = 0;
+            return false;
+        }
+        if ((data.length != 7) & (data.length != 14)) {
+            length = 0;
+            return false;
+        }
+
+        this.timestampMicros = timestampMicros;
+        this.receiverLatitude = receiverLatitude;
+        this.receiverLongitude = receiverLongitude;
+        this.receiverAltitude = receiverAltitude;
+
+        length = data.length;
+        high = pack(data, 0);
+        low = (length == 14) ? pack(data, 7) : 0;
+        return true;
+    }
+
+    /**
+     * Points the view at a new frame held in a byte array, such as the packed frames of a batch.  The bytes are not
+     * retained.
+     *
+     * @param timestampMicros   time the frame was received in microseconds since the epoch
+     * @param receiverLatitude  receiver latitude in degrees
+     * @param receiverLongitude receiver longitude in degrees
+     * @param receiverAltitude  receiver altitude in meters
+     * @param bytes             array holding the frame
+     * @param start             index of the first byte of the frame
+     * @param length            number of bytes in the frame
+     * @return true if the frame was wrapped, false if the data is not a Mode S frame
+     */
+    public boolean wrap(long timestampMicros, double receiverLatitude, double receiverLongitude, double receiverAltitude, byte[] bytes, int start, int length) {
+        if ((length != 7) & (length != 14)) {
+            this.length = 0;
+            return false;
+        }
+
+        this.timestampMicros = timestampMicros;
+        this.receiverLatitude = receiverLatitude;
+        this.receiverLongitude = receiverLongitude;
+        this.receiverAltitude = receiverAltitude;
+
+        this.length = length;
+        high = pack(bytes, start);
+        low = (length == 14) ? pack(bytes, start + 7) : 0;
+        return true;
+    }
+
+    private static long pack(byte[] bytes, int startByte) {
+        long bits = 0;
+        for (int i = startByte; i < startByte + 7; i++) {
+            bits = (bits << 8) | (bytes[i] & 0xFF);
+        }
+        return bits;
+    }
+
+    private static long pack(int[] data, int startByte) {
+        long bits = 0;
+        for (int i = startByte; i < startByte + 7; i++) {
+            bits = (bits << 8) | (data[i] & 0xFF);
+        }
+        return bits;
+    }
+
+    /**
+     * @return number of bytes in the frame, 7 or 14, or 0 if no frame is wrapped
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public long getTimestampMicros() {
+        return timestampMicros;
+    }
+
+    public double getReceiverLatitude() {
+        return receiverLatitude;
+    }
+
+    public double getReceiverLongitude() {
+        return receiverLongitude;
+    }
+
+    public double getReceiverAltitude() {
+        return receiverAltitude;
+    }
+
+    /**
+     * @return 5-bit downlink format
+     */
+    public int getDataFormat() {
+        return (int) (high >>> 51);
+    }
+
+    /**
+     * @return true if the frame is a 112-bit DF17 or DF18 extended squitter
+     */
+    public boolean isExtendedSquitter() {
+        int dataFormat = getDataFormat();
+        return (length == 14) & ((dataFormat == 17) | (dataFormat == 18));
+    }
+
+    /**
+     * @return 3-bit capability (DF11, DF17) or code format (DF18)
+     */
+    public int getCapability() {
+        return (int) (high >>> 48) & 0x7;
+    }
+
+    /**
+     * @return 24-bit address announced (DF11, DF17, DF18)
+     */
+    public int getAddressAnnounced() {
+        return (int) (high >>> 24) & 0xFFFFFF;
+    }
+
+    /**
+     * @return the last 24 bits of the frame, the parity or the parity overlaid with an address or interrogator
+     * identifier
+     */
+    public int getParity() {
+        if (length == 14) {
+            return (int) low & 0xFFFFFF;
+        }
+        return (int) high & 0xFFFFFF;
+    }
+
+    /**
+     * @return the 56-bit ME field of a 112-bit frame, right aligned
+     */
+    public long getMessageExtended() {
+        return ((high & 0xFFFFFF) << 32) | (low >>> 24);
+    }
+
+    /**
+     * @return the ADS-B view of the ME field, reused for every frame, or null if the frame is not an extended squitter
+     */
+    public Adsb1090View getAdsb1090View() {
+        if (!isExtendedSquitter()) {
+            return null;
+        }
+        return adsb1090View.wrap(getMessageExtended());
+    }
+
+    /**
+     * @return the time the frame was received
+     */
+    public Instant getTimestamp() {
+        return Instant.ofEpochSecond(Math.floorDiv(timestampMicros, 1000000L), Math.floorMod(timestampMicros, 1000000L) * 1000);
+    }
+
+    /**
+     * Decodes the wrapped frame into an immutable message that can be retained after the view is reused.
+     *
+     * @return the decoded message or null if no frame is wrapped or it could not be decoded
+     */
+    public TransponderMessage toMessage() {
+        return toMessage(DecodePolicy.ALL);
+    }
+
+    /**
+     * Decodes the wrapped frame into an immutable message, decoding its ADS-B message only if the policy selects its
+     * type code.
+     *
+     * @param decodePolicy type codes to decode
+     * @return the decoded message or null if no frame is wrapped or it could not be decoded
+     */
+    public TransponderMessage toMessage(DecodePolicy decodePolicy) {
+        if (length == 0) {
+            return null;
+        }
+
+        int[] data = new int[length];
+        for (int i = 0; i < 7; i++) {
+            data[i] = (int) (high >>> (48 - (i * 8))) & 0xFF;
+        }
+        for (int i = 7; i < length; i++) {
+            data[i] = (int) (low >>> (48 - ((i - 7) * 8))) & 0xFF;
+        }
+
+        return TransponderMessage.parse(getTimestamp(), receiverLatitude, receiverLongitude, receiverAltitude, data, decodePolicy);
+    }
+
+}
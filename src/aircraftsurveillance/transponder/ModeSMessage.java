@@ -7,13 +7,17 @@ public abstract class ModeSMessage extends TransponderMessage {
     int dataFormat = 0;
 
     public static ModeSMessage parse(Instant timestamp, Double receiverLatitude, Double receiverLongitude, Double receiverAltitude, int[] data) {
+        return parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data, DecodePolicy.ALL);
+    }
+
+    public static ModeSMessage parse(Instant timestamp, Double receiverLatitude, Double receiverLongitude, Double receiverAltitude, int[] data, DecodePolicy decodePolicy) {
         if (data == null) {
             return null;
         }
 
         int dataFormat = extractInt(data, 0, 5);
         if (dataFormat == 17) {
-            return ExtendedSquitter.parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data);
+            return ExtendedSquitter.parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data, decodePolicy);
         }
 
         return null;
@@ -0,0 +1,87 @@
+package aircraftsurveillance.transponder;
+
+/**
+ * Computes the 24-bit Mode S parity (CRC-24) used in the last 24 bits of every Mode S message.
+ * The CRC is computed a byte at a time using a 256-entry lookup table, so checking a 112-bit message costs
+ * eleven table lookups.
+ */
+public class ModeSParity {
+
+    // generator polynomial x^24 + x^23 + ... + x^10 + x^3 + 1, without the x^24 term
+    private static final int GENERATOR = 0xFFF409;
+
+    private static final int[] table = new int[256];
+
+    static {
+        for (int i = 0; i < table.length; i++) {
+            int crc = i << 16;
+            for (int j = 0; j < 8; j++) {
+                if ((crc & 0x800000) != 0) {
+                    crc = (crc << 1) ^ GENERATOR;
+                } else {
+                    crc = crc << 1;
+                }
+            }
+            table[i] = crc & 0xFFFFFF;
+        }
+    }
+
+    /**
+     * Computes the CRC-24 of the first bytes of a message.
+     *
+     * @param data   int array representing a series of bytes
+     * @param length number of bytes to include in the CRC
+     * @return the 24-bit CRC
+     */
+    public static int crc(int[] data, int length) {
+        int crc = 0;
+        for (int i = 0; i < length; i++) {
+            crc = ((crc << 8) ^ table[((crc >>> 16) ^ data[i]) & 0xFF]) & 0xFFFFFF;
+        }
+        return crc;
+    }
+
+    /**
+     * Computes the syndrome of a message, the CRC of the data bits XOR the transmitted parity bits.
+     * The syndrome is 0 for a message with parity/interrogator identifier 0 (DF17, DF18) that was received without
+     * errors.
+     *
+     * @param data int array representing a 7 or 14 byte Mode S message
+     * @return the 24-bit syndrome
+     */
+    public static int syndrome(int[] data) {
+        int length = data.length - 3;
+        int parity = (data[length] << 16) | (data[length + 1] << 8) | data[length + 2];
+        return crc(data, length) ^ parity;
+    }
+
+    /**
+     * Computes the syndrome of a message packed into a byte array, as used by batches of frames.
+     *
+     * @param bytes  array holding the message
+     * @param offset index of the first byte of the message
+     * @param length 7 or 14, the number of bytes in the message
+     * @return the 24-bit syndrome
+     */
+    public static int syndrome(byte[] bytes, int offset, int length) {
+        int crc = 0;
+        int end = offset + length - 3;
+        for (int i = offset; i < end; i++) {
+            crc = ((crc << 8) ^ table[((crc >>> 16) ^ bytes[i]) & 0xFF]) & 0xFFFFFF;
+        }
+        int parity = ((bytes[end] & 0xFF) << 16) | ((bytes[end + 1] & 0xFF) << 8) | (bytes[end + 2] & 0xFF);
+        return crc ^ parity;
+    }
+
+    /**
+     * Verifies the parity of a message whose parity field is not overlaid with an address or interrogator
+     * identifier.
+     *
+     * @param data int array representing a 7 or 14 byte Mode S message
+     * @return true if the parity is correct, false otherwise
+     */
+    public static boolean isValid(int[] data) {
+        return syndrome(data) == 0;
+    }
+
+}
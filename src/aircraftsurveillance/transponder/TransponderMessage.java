@@ -7,6 +7,10 @@ import java.time.Instant;
 public abstract class TransponderMessage extends AircraftSurveillanceMessage {
 
     public static TransponderMessage parse(Instant timestamp, Double receiverLatitude, Double receiverLongitude, Double receiverAltitude, int[] data) {
+        return parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data, DecodePolicy.ALL);
+    }
+
+    public static TransponderMessage parse(Instant timestamp, Double receiverLatitude, Double receiverLongitude, Double receiverAltitude, int[] data, DecodePolicy decodePolicy) {
         if (data == null) {
             return null;
         }
@@ -14,7 +18,7 @@ public abstract class TransponderMessage extends AircraftSurveillanceMessage {
         if (data.length == 7) {
 
         } else if (data.length == 14) {
-            return ModeSMessage.parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data);
+            return ModeSMessage.parse(timestamp, receiverLatitude, receiverLongitude, receiverAltitude, data, decodePolicy);
         }
 
         return null;
@@ -1,7 +1,7 @@
 package aircraftsurveillance.transponder.adsb1090;
 
 public abstract class Adsb1090Message {
-    int[] originalMessage;
+    long originalMessage;  // 56-bit ME field, right aligned
 
     int typeCode;
     int subtypeCode;
@@ -40,149 +40,161 @@ public abstract class Adsb1090Message {
             throw new Adsb1090ParseException("Adsb1090Message.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B message
+     * @throws Adsb1090ParseException
+     */
+    public static Adsb1090Message parse(long data) throws Adsb1090ParseException {
+        Adsb1090Message message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("Adsb1090Message.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B message without throwing an exception.  Frames that are malformed or
+     * of an unsupported type are common on a noisy channel, returning null for them avoids building an exception.
+     * Fields are extracted from the long with a shift and a mask, so decoding does not allocate any bit arrays.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B message, or null if the data is not a valid message
+     */
+    public static Adsb1090Message tryParse(long data) {
         int typeCode = extractInt(data, 0, 5);
         switch (typeCode) {
             case 0:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
 
             case 1:
-                return IdentificationAndCategory.parse(data);
+                return IdentificationAndCategory.tryParse(data);
             case 2:
-                return IdentificationAndCategory.parse(data);
+                return IdentificationAndCategory.tryParse(data);
             case 3:
-                return IdentificationAndCategory.parse(data);
+                return IdentificationAndCategory.tryParse(data);
             case 4:
-                return IdentificationAndCategory.parse(data);
+                return IdentificationAndCategory.tryParse(data);
 
             case 5:
-                return SurfacePosition.parse(data);
+                return SurfacePosition.tryParse(data);
             case 6:
-                return SurfacePosition.parse(data);
+                return SurfacePosition.tryParse(data);
             case 7:
-                return SurfacePosition.parse(data);
+                return SurfacePosition.tryParse(data);
             case 8:
-                return SurfacePosition.parse(data);
+                return SurfacePosition.tryParse(data);
 
             case 9:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 10:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 11:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 12:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 13:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 14:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 15:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 16:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 17:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 18:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
 
             case 19:
-                return AirborneVelocity.parse(data);
+                return AirborneVelocity.tryParse(data);
 
             case 20:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 21:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
             case 22:
-                return AirbornePosition.parse(data);
+                return AirbornePosition.tryParse(data);
 
             case 23:
-                return Adsb1090UnknownMessage.parse(data);
+                return Adsb1090UnknownMessage.tryParse(data);
 
             case 24:
-                return SurfaceSystemStatus.parse(data);
+                return SurfaceSystemStatus.tryParse(data);
 
             case 25:
-                return Adsb1090UnknownMessage.parse(data);
+                return Adsb1090UnknownMessage.tryParse(data);
             case 26:
-                return Adsb1090UnknownMessage.parse(data);
+                return Adsb1090UnknownMessage.tryParse(data);
             case 27:
-                return Adsb1090UnknownMessage.parse(data);
+                return Adsb1090UnknownMessage.tryParse(data);
 
             case 28:
-                return AircraftStatus.parse(data);
+                return AircraftStatus.tryParse(data);
 
             case 29:
-                return TargetStateAndStatus.parse(data);
+                return TargetStateAndStatus.tryParse(data);
 
             case 30:
-                return Adsb1090UnknownMessage.parse(data);
+                return Adsb1090UnknownMessage.tryParse(data);
 
             case 31:
-                return OperationalStatus.parse(data);
+                return OperationalStatus.tryParse(data);
 
             default:
-                throw new Adsb1090ParseException("Adsb1090Message.parse(data): type code is not valid (type code == " + typeCode + ")");
+                return null;
         }
     }
 
     /**
-     * Returns an int extracted bit by bit from the array.  Useful for parsing a binary message.
-     * The input array is type int but each entry in the array represents a single byte.
+     * Packs 7 bytes into the low 56 bits of a long, the first byte being the most significant.
+     *
+     * @param data int array representing 7 bytes
+     * @return the 56 bits right aligned in a long
+     */
+    static long toLong(int[] data) {
+        long bits = 0;
+        for (int i = 0; i < 7; i++) {
+            bits = (bits << 8) | (data[i] & 0xFF);
+        }
+        return bits;
+    }
+
+    /**
+     * Returns an int extracted from a 56-bit message with a shift and a mask.  Useful for parsing a binary message.
      * The starting bit and length do not need to follow any alignment rules.
      *
-     * @param data     int array representing a series of bytes
+     * @param data     the 56 bits of the message, right aligned in a long
      * @param startBit a zero-based index of the first bit (MSB) to extract
      * @param length   the total number of bits to extract, not to exceed 31
-     * @return the int extracted from the array
+     * @return the int extracted from the message
      */
-    static int extractInt(int[] data, int startBit, int length) {
-        if (data == null) {
-            throw new IllegalArgumentException("data == null");
-        }
-        if (startBit < 0) {
-            throw new IllegalArgumentException("startBit < 0");
-        }
-        if (length <= 0) {
-            throw new IllegalArgumentException("length <= 0");
-        }
-        if (length > 31) {
-            throw new IllegalArgumentException("length > 31");
-        }
-        if ((length + startBit) > (data.length * 8)) {
-            throw new IllegalArgumentException("(length + startBit) > (data.length * 8)");
-        }
-
-        // create an int array where each entry represents a single bit
-        int[] bits = new int[data.length * 8];
-        for (int i = 0; i < data.length; i++) {
-            for (int j = 0; j < 8; j++) {
-                bits[(i * 8) + j] = (data[i] >>> (7 - j)) & 1;
-            }
-        }
-
-        // extractInt the bits needed for the return value
-        int[] returnBits = new int[length];
-        System.arraycopy(bits, startBit, returnBits, 0, returnBits.length);
-
-        // convert the return bits into an integer
-        // this loop could be combined with the loop in the previous step, but is kept separate for better readability
-        int returnInt = 0;
-        for (int i = 0; i < returnBits.length; i++) {
-            returnInt |= (returnBits[i] << ((returnBits.length - 1) - i));
-        }
-
-        return returnInt;
+    static int extractInt(long data, int startBit, int length) {
+        return (int) (data >>> (56 - startBit - length)) & ((1 << length) - 1);
     }
 
     /**
-     * Performs a bit test on an integer array.  Useful for parsing a binary message.
-     * The input array is type int but each entry in the array represents a single byte.
+     * Performs a bit test on a 56-bit message.  Useful for parsing a binary message.
      *
-     * @param data     int array representing a series of bytes
-     * @param startBit a zero-based index of the first bit (MSB) to extract
+     * @param data     the 56 bits of the message, right aligned in a long
+     * @param startBit a zero-based index of the bit (MSB) to test
      * @return true if the bit is set, false otherwise
      */
-    static boolean extractBoolean(int[] data, int startBit) {
-        return extractInt(data, startBit, 1) == 1;
+    static boolean extractBoolean(long data, int startBit) {
+        return ((data >>> (55 - startBit)) & 1) == 1;
+    }
+
+    /**
+     * @param data the 56 bits of the message, right aligned in a long
+     * @return the message as 14 hex digits
+     */
+    static String toHexString(long data) {
+        return String.format("%014x", data);
     }
 
     /**
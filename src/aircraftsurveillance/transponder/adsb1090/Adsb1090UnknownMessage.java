@@ -26,8 +26,33 @@ public class Adsb1090UnknownMessage extends Adsb1090Message {
             throw new Adsb1090ParseException("Adsb1090UnknownMessage.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an unknown ADS-B message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded unknown ADS-B message.
+     * @throws Adsb1090ParseException
+     */
+    public static Adsb1090UnknownMessage parse(long data) throws Adsb1090ParseException {
+        Adsb1090UnknownMessage message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("Adsb1090UnknownMessage.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an unknown ADS-B message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded unknown ADS-B message, or null if the data is not a valid message
+     */
+    public static Adsb1090UnknownMessage tryParse(long data) {
         Adsb1090UnknownMessage message = new Adsb1090UnknownMessage();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         message.typeCode = extractInt(data, 0, 5);
 
@@ -43,9 +68,7 @@ public class Adsb1090UnknownMessage extends Adsb1090Message {
         sb.append("Adsb1090UnknownMessage");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -0,0 +1,332 @@
+package aircraftsurveillance.transponder.adsb1090;
+
+/**
+ * Mutable, reusable view of the 56-bit ME field of an extended squitter.
+ * Nothing is decoded when a message is wrapped, each accessor extracts its field from the wrapped long on demand.
+ * A single view can be reused for every message, so decoding through a view does not allocate.
+ * The accessors do not check the type code, callers are expected to test the message type with one of the is...()
+ * methods before reading the fields of that type.  Use toMessage() to create an immutable copy that can be retained.
+ */
+
+public class Adsb1090View {
+
+    private static final IdentificationAndCategory.EmitterCategory[] emitterCategories = IdentificationAndCategory.EmitterCategory.values();
+
+    private long data;  // 56-bit ME field, right aligned
+
+    /**
+     * Points the view at a new message.
+     *
+     * @param data the 56 bits of the message, right aligned in a long
+     * @return this view
+     */
+    public Adsb1090View wrap(long data) {
+        this.data = data;
+        return this;
+    }
+
+    /**
+     * @return the 56 bits of the wrapped message, right aligned in a long
+     */
+    public long getData() {
+        return data;
+    }
+
+    /**
+     * Decodes the wrapped message into an immutable message that can be retained after the view is reused.
+     *
+     * @return the decoded ADS-B message
+     * @throws Adsb1090ParseException
+     */
+    public Adsb1090Message toMessage() throws Adsb1090ParseException {
+        return Adsb1090Message.parse(data);
+    }
+
+    /**
+     * @return 5-bit type code
+     */
+    public int getTypeCode() {
+        return Adsb1090Message.extractInt(data, 0, 5);
+    }
+
+    /**
+     * @return 3-bit sub type code, only meaningful for the message types that have one
+     */
+    public int getSubtypeCode() {
+        return Adsb1090Message.extractInt(data, 5, 3);
+    }
+
+    /**
+     * @return true for an airborne position message, type code 0, 9-18 or 20-22
+     */
+    public boolean isAirbornePosition() {
+        int typeCode = getTypeCode();
+        return (typeCode == 0) | ((typeCode >= 9) & (typeCode <= 18)) | ((typeCode >= 20) & (typeCode <= 22));
+    }
+
+    /**
+     * @return true for a surface position message, type code 5-8
+     */
+    public boolean isSurfacePosition() {
+        int typeCode = getTypeCode();
+        return (typeCode >= 5) & (typeCode <= 8);
+    }
+
+    /**
+     * @return true for an identification and category message, type code 1-4
+     */
+    public boolean isIdentificationAndCategory() {
+        int typeCode = getTypeCode();
+        return (typeCode >= 1) & (typeCode <= 4);
+    }
+
+    /**
+     * @return true for an airborne velocity message with a ground velocity, type code 19 sub type 1-2
+     */
+    public boolean isVelocityOverGround() {
+        int subtypeCode = getSubtypeCode();
+        return (getTypeCode() == 19) & ((subtypeCode == 1) | (subtypeCode == 2));
+    }
+
+    /**
+     * @return true for an airborne velocity message with an airspeed and heading, type code 19 sub type 3-4
+     */
+    public boolean isAirspeedAndHeading() {
+        int subtypeCode = getSubtypeCode();
+        return (getTypeCode() == 19) & ((subtypeCode == 3) | (subtypeCode == 4));
+    }
+
+    // airborne and surface position
+
+    /**
+     * @return true if the time of applicability is synchronized to UTC
+     */
+    public boolean isTimeSynchronized() {
+        return Adsb1090Message.extractBoolean(data, 20);
+    }
+
+    /**
+     * @return true if odd position, false if even position
+     */
+    public boolean getCprFormat() {
+        return Adsb1090Message.extractBoolean(data, 21);
+    }
+
+    /**
+     * @return CPR encoded latitude
+     */
+    public int getEncodedLatitude() {
+        return Adsb1090Message.extractInt(data, 22, 17);
+    }
+
+    /**
+     * @return CPR encoded longitude
+     */
+    public int getEncodedLongitude() {
+        return Adsb1090Message.extractInt(data, 39, 17);
+    }
+
+    // airborne position
+
+    /**
+     * @return true if the airborne position message contains an altitude
+     */
+    public boolean isAltitudeAvailable() {
+        return Adsb1090Message.extractInt(data, 8, 12) != 0;
+    }
+
+    /**
+     * @return altitude in feet, or Integer.MIN_VALUE if the altitude is not available or can not be decoded
+     */
+    public int getAltitude() {
+        int altitude = AirbornePosition.decodeAltitude(Adsb1090Message.extractInt(data, 8, 12));
+        if (altitude == AirbornePosition.ALTITUDE_NOT_VALID) {
+            return Integer.MIN_VALUE;
+        }
+        return altitude;
+    }
+
+    /**
+     * @return false if the airborne position message has a Mode C altitude that is not a valid encoding, the same
+     * messages AirbornePosition.tryParse() rejects
+     */
+    public boolean isAltitudeValid() {
+        return AirbornePosition.decodeAltitude(Adsb1090Message.extractInt(data, 8, 12)) != AirbornePosition.ALTITUDE_NOT_VALID;
+    }
+
+    /**
+     * @return true if the airborne position message contains a barometric altitude, false if GNSS height
+     */
+    public boolean isBaroAltitude() {
+        return getTypeCode() <= 18;
+    }
+
+    // surface position
+
+    /**
+     * @return encoded surface movement
+     */
+    public int getMovement() {
+        return Adsb1090Message.extractInt(data, 5, 7);
+    }
+
+    // surface position and airspeed and heading
+
+    /**
+     * @return true if the heading of a surface position or airspeed and heading message is valid
+     */
+    public boolean isHeadingAvailable() {
+        if (isSurfacePosition()) {
+            return Adsb1090Message.extractBoolean(data, 12);
+        }
+        return Adsb1090Message.extractBoolean(data, 13);
+    }
+
+    /**
+     * @return heading of a surface position or airspeed and heading message in degrees
+     */
+    public double getHeading() {
+        if (isSurfacePosition()) {
+            return SurfacePosition.decodeHeading(Adsb1090Message.extractInt(data, 13, 7));
+        }
+        return AirspeedAndHeading.decodeHeading(Adsb1090Message.extractInt(data, 14, 10));
+    }
+
+    // identification and category
+
+    /**
+     * @return emitter category, or null if the message is not an identification and category message
+     */
+    public IdentificationAndCategory.EmitterCategory getEmitterCategory() {
+        int typeCode = getTypeCode();
+        if ((typeCode < 1) | (typeCode > 4)) {
+            return null;
+        }
+        // the categories are declared as set A, B, C and D, which are type codes 4, 3, 2 and 1
+        return emitterCategories[((4 - typeCode) * 8) + Adsb1090Message.extractInt(data, 5, 3)];
+    }
+
+    /**
+     * Decodes the eight identification characters into an array supplied by the caller.
+     *
+     * @param characters array of at least 8 chars to receive the identification
+     * @return true if all characters were decoded, false if any character is not valid
+     */
+    public boolean getCharacters(char[] characters) {
+        boolean valid = true;
+        for (int i = 0; i < 8; i++) {
+            characters[i] = IdentificationAndCategory.decodeCharacter(Adsb1090Message.extractInt(data, 8 + (i * 6), 6));
+            valid &= characters[i] != IdentificationAndCategory.CHARACTER_NOT_VALID;
+        }
+        return valid;
+    }
+
+    // airborne velocity
+
+    /**
+     * @return true if the east-west velocity is available
+     */
+    public boolean isEastWestVelocityAvailable() {
+        return Adsb1090Message.extractInt(data, 14, 10) != 0;
+    }
+
+    /**
+     * @return true if the velocity is toward the west, false if toward the east
+     */
+    public boolean isWestVelocity() {
+        return Adsb1090Message.extractBoolean(data, 13);
+    }
+
+    /**
+     * @return east-west velocity in knots
+     */
+    public int getEastWestVelocity() {
+        return decodeVelocity(Adsb1090Message.extractInt(data, 14, 10));
+    }
+
+    /**
+     * @return true if the north-south velocity is available
+     */
+    public boolean isNorthSouthVelocityAvailable() {
+        return Adsb1090Message.extractInt(data, 25, 10) != 0;
+    }
+
+    /**
+     * @return true if the velocity is toward the south, false if toward the north
+     */
+    public boolean isSouthVelocity() {
+        return Adsb1090Message.extractBoolean(data, 24);
+    }
+
+    /**
+     * @return north-south velocity in knots
+     */
+    public int getNorthSouthVelocity() {
+        return decodeVelocity(Adsb1090Message.extractInt(data, 25, 10));
+    }
+
+    /**
+     * @return true if the airspeed is available
+     */
+    public boolean isAirspeedAvailable() {
+        return Adsb1090Message.extractInt(data, 25, 10) != 0;
+    }
+
+    /**
+     * @return airspeed in knots
+     */
+    public int getAirspeed() {
+        return decodeVelocity(Adsb1090Message.extractInt(data, 25, 10));
+    }
+
+    /**
+     * @return true if the vertical rate is available
+     */
+    public boolean isVerticalRateAvailable() {
+        return Adsb1090Message.extractInt(data, 37, 9) != 0;
+    }
+
+    /**
+     * @return true if the aircraft is descending, false if climbing
+     */
+    public boolean isVerticalRateNegative() {
+        return Adsb1090Message.extractBoolean(data, 36);
+    }
+
+    /**
+     * @return vertical rate in feet per minute
+     */
+    public int getVerticalRate() {
+        return AirborneVelocity.decodeVerticalRate(Adsb1090Message.extractInt(data, 37, 9));
+    }
+
+    /**
+     * @return true if the geometric height difference is available
+     */
+    public boolean isGeometricHeightDifferenceAvailable() {
+        return Adsb1090Message.extractInt(data, 49, 7) != 0;
+    }
+
+    /**
+     * @return true if the geometric height is below the barometric altitude
+     */
+    public boolean isGeometricHeightBelowBaroAltitude() {
+        return Adsb1090Message.extractBoolean(data, 48);
+    }
+
+    /**
+     * @return geometric height difference from the barometric altitude in feet
+     */
+    public int getGeometricHeightDifference() {
+        return AirborneVelocity.decodeGeometricHeightDifference(Adsb1090Message.extractInt(data, 49, 7));
+    }
+
+    private int decodeVelocity(int encodedVelocity) {
+        int subtypeCode = getSubtypeCode();
+        if ((subtypeCode < 1) | (subtypeCode > 4)) {
+            return Integer.MIN_VALUE;
+        }
+        return AirborneVelocity.decodeVelocity(encodedVelocity, subtypeCode);
+    }
+
+}
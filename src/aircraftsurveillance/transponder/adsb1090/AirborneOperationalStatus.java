@@ -48,21 +48,46 @@ public class AirborneOperationalStatus extends OperationalStatus {
             throw new Adsb1090ParseException("AirborneOperationalStatus.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airborne Operational Status message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airborne Operational Status message.
+     * @throws Adsb1090ParseException
+     */
+    public static AirborneOperationalStatus parse(long data) throws Adsb1090ParseException {
+        AirborneOperationalStatus message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("AirborneOperationalStatus.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airborne Operational Status message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airborne Operational Status message, or null if the data is not a valid message
+     */
+    public static AirborneOperationalStatus tryParse(long data) {
         AirborneOperationalStatus message = new AirborneOperationalStatus();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type code is 31
         if (message.typeCode != 31) {
-            throw new Adsb1090ParseException("AirborneOperationalStatus.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 2);
         // valid sub type code is 0
         if (message.subtypeCode != 0) {
-            throw new Adsb1090ParseException("AirborneOperationalStatus.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
         }
 
         message.airborneCapabilityClassCodes = extractInt(data, 8, 16);
@@ -89,9 +114,7 @@ public class AirborneOperationalStatus extends OperationalStatus {
         sb.append("AirborneOperationalStatus");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -40,6 +40,9 @@ public class AirbornePosition extends Adsb1090Message {
     private int navigationIntegrityCategory;
     private double horizontalContainmentRadiusFalse;  // Horizontal Containment Radius if NIC supplement A is false
     private double horizontalContainmentRadiusTrue;  // Horizontal Containment Radius if NIC supplement A is true
+    private volatile boolean fieldsDecoded = false;
+
+    static final int ALTITUDE_NOT_VALID = Integer.MAX_VALUE;  // returned by decodeAltitude for an invalid Mode C altitude
 
     private AirbornePosition() {
     }
@@ -62,74 +65,110 @@ public class AirbornePosition extends Adsb1090Message {
             throw new Adsb1090ParseException("AirbornePosition.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airborne Position message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airborne Position message
+     * @throws Adsb1090ParseException
+     */
+    public static AirbornePosition parse(long data) throws Adsb1090ParseException {
+        AirbornePosition message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("AirbornePosition.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airborne Position message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airborne Position message, or null if the data is not a valid message
+     */
+    public static AirbornePosition tryParse(long data) {
         AirbornePosition message = new AirbornePosition();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type codes are 0 and  9-18 and 20-22
         if ((message.typeCode < 0) | (message.typeCode > 0 & message.typeCode < 9) | (message.typeCode == 19) | (message.typeCode > 22)) {
-            throw new Adsb1090ParseException("AirbornePosition.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         message.subtypeCode = -1;
 
-        int surveillanceStatus = extractInt(data, 5, 2);
-        if (surveillanceStatus == 0) {
-            message.surveillanceStatus = SurveillanceStatus.NO_CONDITION_INFORMATION;
-        } else if (surveillanceStatus == 1) {
-            message.surveillanceStatus = SurveillanceStatus.PERMANENT_ALERT;
-        } else if (surveillanceStatus == 2) {
-            message.surveillanceStatus = SurveillanceStatus.TEMPORARY_ALERT;
-        } else if (surveillanceStatus == 3) {
-            message.surveillanceStatus = SurveillanceStatus.SPI_CONDITION;
-        } else {
-            throw new Adsb1090ParseException("AirbornePosition.parse(data): surveillanceStatus != 0,1,2,3 (surveillanceStatus == " + surveillanceStatus + ")");
+        // a Mode C altitude can have an invalid encoding, check it now so that the message is rejected up front
+        int encodedAltitude = extractInt(data, 8, 12);
+        if ((encodedAltitude & 0x10) == 0) {
+            if (decodeAltitude(encodedAltitude) == ALTITUDE_NOT_VALID) {
+                return null;
+            }
         }
 
-        message.nicSupplementB = extractBoolean(data, 7);
+        // the remaining fields are decoded by decodeFields() when they are first read
+        return message;
+    }
 
-        int encodedAltitude = extractInt(data, 8, 12);
-        message.altitudeAvailable = encodedAltitude != 0;
-        message.altitude = decodeAltitude(encodedAltitude);
-        message.modeSAltitude = (encodedAltitude & 0x10) == 0x10;  // check Q bit
-
-        if ((message.typeCode == 0) | ((message.typeCode >= 9) & (message.typeCode <= 18))) {
-            // typeCode is 0 or 9-18
-            message.baroAltitude = true;
-        } else if ((message.typeCode >= 20) & (message.typeCode <= 22)) {
-            // typeCode is 20-22
-            message.baroAltitude = false;
+    /**
+     * Decodes the fields after the type code the first time one of them is read.
+     */
+    private void decodeFields() {
+        if (fieldsDecoded) {
+            return;
+        }
+
+        int encodedSurveillanceStatus = extractInt(originalMessage, 5, 2);
+        if (encodedSurveillanceStatus == 0) {
+            surveillanceStatus = SurveillanceStatus.NO_CONDITION_INFORMATION;
+        } else if (encodedSurveillanceStatus == 1) {
+            surveillanceStatus = SurveillanceStatus.PERMANENT_ALERT;
+        } else if (encodedSurveillanceStatus == 2) {
+            surveillanceStatus = SurveillanceStatus.TEMPORARY_ALERT;
         } else {
-            throw new Adsb1090ParseException("AirbornePosition.parse(data): unable to set baroAltitude (typeCode == " + message.typeCode + ")");
+            surveillanceStatus = SurveillanceStatus.SPI_CONDITION;
         }
 
-        message.timeSynchronization = extractBoolean(data, 20);
+        nicSupplementB = extractBoolean(originalMessage, 7);
 
-        boolean cprFormat = extractBoolean(data, 21);
-        int encodedLatitude = extractInt(data, 22, 17);
-        int encodedLongitude = extractInt(data, 39, 17);
-        message.cpr = new CompactPositionReport(cprFormat, encodedLatitude, encodedLongitude);
+        int encodedAltitude = extractInt(originalMessage, 8, 12);
+        altitudeAvailable = encodedAltitude != 0;
+        altitude = decodeAltitude(encodedAltitude);
+        modeSAltitude = (encodedAltitude & 0x10) == 0x10;  // check Q bit
 
-        message.navigationIntegrityCategory = decodeNavigationIntegrityCategory(message.typeCode, message.nicSupplementB);
-        message.horizontalContainmentRadiusFalse = decodeHorizontalContainmentRadius(message.typeCode, false, message.nicSupplementB);
-        message.horizontalContainmentRadiusTrue = decodeHorizontalContainmentRadius(message.typeCode, true, message.nicSupplementB);
+        // typeCode is 0 or 9-18 for a barometric altitude, 20-22 for a GNSS altitude
+        baroAltitude = (typeCode == 0) | ((typeCode >= 9) & (typeCode <= 18));
 
-        return message;
+        timeSynchronization = extractBoolean(originalMessage, 20);
+
+        boolean cprFormat = extractBoolean(originalMessage, 21);
+        int encodedLatitude = extractInt(originalMessage, 22, 17);
+        int encodedLongitude = extractInt(originalMessage, 39, 17);
+        cpr = new CompactPositionReport(cprFormat, encodedLatitude, encodedLongitude);
+
+        navigationIntegrityCategory = decodeNavigationIntegrityCategory(typeCode, nicSupplementB);
+        horizontalContainmentRadiusFalse = decodeHorizontalContainmentRadius(typeCode, false, nicSupplementB);
+        horizontalContainmentRadiusTrue = decodeHorizontalContainmentRadius(typeCode, true, nicSupplementB);
+
+        fieldsDecoded = true;
     }
 
     /**
      * @return a String representing the ADS-B Airborne Position message
      */
     public String toString() {
+        decodeFields();
+
         StringBuilder sb = new StringBuilder();
 
         sb.append("AirbornePosition");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -170,6 +209,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return surveillance status
      */
     public SurveillanceStatus getSurveillanceStatus() {
+        decodeFields();
         return surveillanceStatus;
     }
 
@@ -177,6 +217,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return NIC supplement B
      */
     public boolean getNICSupplementB() {
+        decodeFields();
         return nicSupplementB;
     }
 
@@ -184,6 +225,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return true if the altitude is available, otherwise false
      */
     public boolean isAltitudeAvailable() {
+        decodeFields();
         return altitudeAvailable;
     }
 
@@ -191,6 +233,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return altitude in feet
      */
     public int getAltitude() {
+        decodeFields();
         return altitude;
     }
 
@@ -198,6 +241,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return true if the altitude was a Mode S altitude with a 25-foot resolution, false otherwise
      */
     public boolean isModeSAltitude() {
+        decodeFields();
         return modeSAltitude;
     }
 
@@ -205,6 +249,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return true if the altitude is a barometric altitude, false if a GNSS altitude
      */
     public boolean isBaroAltitude() {
+        decodeFields();
         return baroAltitude;
     }
 
@@ -212,6 +257,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return true if the altitude is a GNSS altitude, false if a barometric altitude
      */
     public boolean isGNSSAltitude() {
+        decodeFields();
         return !baroAltitude;
     }
 
@@ -221,6 +267,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return true if synchronized, false if not synchronized
      */
     public boolean isTimeSynchronized() {
+        decodeFields();
         return timeSynchronization;
     }
 
@@ -235,6 +282,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return compact position report
      */
     public CompactPositionReport getCompactPositionReport() {
+        decodeFields();
         return cpr;
     }
 
@@ -242,6 +290,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return Navigation Integrity Category (NIC)
      */
     public int getNavigationIntegrityCategory() {
+        decodeFields();
         return navigationIntegrityCategory;
     }
 
@@ -249,6 +298,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return Horizontal Containment Radius in meters assuming a worst case value for NIC supplement A
      */
     public double getHorizontalContainmentRadius() {
+        decodeFields();
         if (horizontalContainmentRadiusTrue > horizontalContainmentRadiusFalse) {
             return horizontalContainmentRadiusTrue;
         } else {
@@ -261,6 +311,7 @@ public class AirbornePosition extends Adsb1090Message {
      * @return Horizontal Containment Radius in meters
      */
     public double getHorizontalContainmentRadius(boolean nicSupplementA) {
+        decodeFields();
         if (nicSupplementA) {
             return horizontalContainmentRadiusTrue;
         } else {
@@ -272,12 +323,11 @@ public class AirbornePosition extends Adsb1090Message {
      * Decodes an encoded altitude.
      *
      * @param encodedAltitude encoded altitude
-     * @return altitude in feet
-     * @throws Adsb1090ParseException
+     * @return altitude in feet, Integer.MIN_VALUE if not available or ALTITUDE_NOT_VALID if the encoding is not valid
      */
-    private static int decodeAltitude(int encodedAltitude) throws Adsb1090ParseException {
+    static int decodeAltitude(int encodedAltitude) {
         if ((encodedAltitude < 0) | (encodedAltitude > 4095)) {
-            throw new Adsb1090ParseException("AirbornePosition.decodeAltitude(encodedAltitude == " + encodedAltitude + "): Encoded altitude is not valid, (encodedAltitude < 0) | (encodedAltitude > 4095)");
+            throw new IllegalArgumentException("AirbornePosition.decodeAltitude(encodedAltitude == " + encodedAltitude + "): Encoded altitude is not valid, (encodedAltitude < 0) | (encodedAltitude > 4095)");
         }
 
         // 0.0005 - altitude is not available
@@ -304,12 +354,11 @@ public class AirbornePosition extends Adsb1090Message {
      *
      * @param encodedAltitude encoded altitude
      * @return altitude in feet
-     * @throws Adsb1090ParseException
      */
-    private static int decodeModeSAltitude(int encodedAltitude) throws Adsb1090ParseException {
+    private static int decodeModeSAltitude(int encodedAltitude) {
         // verify Q bit is set
         if ((encodedAltitude & 0x10) != 0x10) {
-            throw new Adsb1090ParseException("AirbornePosition.decodeModeSAltitude(encodedAltitude == " + encodedAltitude + "): Q bit is clear! (it should be set)");
+            throw new IllegalArgumentException("AirbornePosition.decodeModeSAltitude(encodedAltitude == " + encodedAltitude + "): Q bit is clear! (it should be set)");
         }
 
         int altitude = ((encodedAltitude & 0xFE0) >>> 1) | (encodedAltitude & 0x00F);
@@ -322,13 +371,12 @@ public class AirbornePosition extends Adsb1090Message {
      * Decodes an encoded Mode C altitude.
      *
      * @param encodedAltitude encoded altitude
-     * @return altitude in feet
-     * @throws Adsb1090ParseException
+     * @return altitude in feet or ALTITUDE_NOT_VALID if the encoding is not valid
      */
-    private static int decodeModeCAltitude(int encodedAltitude) throws Adsb1090ParseException {
+    private static int decodeModeCAltitude(int encodedAltitude) {
         // verify Q bit is clear
         if ((encodedAltitude & 0x10) == 0x10) {
-            throw new Adsb1090ParseException("AirbornePosition.decodeModeCAltitude(encodedAltitude == " + encodedAltitude + "): Q bit is set! (it should be clear)");
+            throw new IllegalArgumentException("AirbornePosition.decodeModeCAltitude(encodedAltitude == " + encodedAltitude + "): Q bit is set! (it should be clear)");
         }
 
         // Encoded Altitude: C1 A1 C2 A2 C4 A4 B1 Q B2 D2 B4 D4
@@ -400,7 +448,7 @@ public class AirbornePosition extends Adsb1090Message {
 
         // valid values for one hundreds portion is 1,2,3,4,7
         if (oneHundreds == 0 | oneHundreds == 5 | oneHundreds == 6)
-            throw new Adsb1090ParseException("AirbornePosition.decodeModeCAltitude(encodedAltitude == " + encodedAltitude + "): Unable to decode mode C altitude (one hundreds == " + oneHundreds + ")");
+            return ALTITUDE_NOT_VALID;
 
         // the one hundreds portion isn't a true gray code
         if (oneHundreds == 7)
@@ -422,9 +470,8 @@ public class AirbornePosition extends Adsb1090Message {
      * @param typeCode       type code
      * @param nicSupplementB NIC supplement B
      * @return Navigation Integrity Category (NIC)
-     * @throws Adsb1090ParseException
      */
-    private static int decodeNavigationIntegrityCategory(int typeCode, boolean nicSupplementB) throws Adsb1090ParseException {
+    private static int decodeNavigationIntegrityCategory(int typeCode, boolean nicSupplementB) {
         switch (typeCode) {
             case 0:
                 return 0;
@@ -461,7 +508,7 @@ public class AirbornePosition extends Adsb1090Message {
             case 22:
                 return 0;
             default:
-                throw new Adsb1090ParseException("AirbornePosition.decodeNavigationIntegrityCategory(typeCode == " + typeCode + ", nicSupplementB == " + nicSupplementB + "): Unable to decode Navigation Integrity Category");
+                throw new IllegalArgumentException("AirbornePosition.decodeNavigationIntegrityCategory(typeCode == " + typeCode + ", nicSupplementB == " + nicSupplementB + "): Unable to decode Navigation Integrity Category");
         }
     }
 
@@ -472,9 +519,8 @@ public class AirbornePosition extends Adsb1090Message {
      * @param nicSupplementA NIC supplement A
      * @param nicSupplementB NIC Supplement B
      * @return Horizontal containment radius in meters
-     * @throws Adsb1090ParseException
      */
-    private static double decodeHorizontalContainmentRadius(int typeCode, boolean nicSupplementA, boolean nicSupplementB) throws Adsb1090ParseException {
+    private static double decodeHorizontalContainmentRadius(int typeCode, boolean nicSupplementA, boolean nicSupplementB) {
         switch (typeCode) {
             case 0:
                 return Double.MAX_VALUE;
@@ -521,7 +567,7 @@ public class AirbornePosition extends Adsb1090Message {
             case 22:
                 return Double.MAX_VALUE;
             default:
-                throw new Adsb1090ParseException("AirbornePosition.decodeHorizontalContainmentRadius(typeCode == " + typeCode + ", nicSupplementA == " + nicSupplementA + ", nicSupplementB == " + nicSupplementB + "): Unable to decode horizontal containment radius");
+                throw new IllegalArgumentException("AirbornePosition.decodeHorizontalContainmentRadius(typeCode == " + typeCode + ", nicSupplementA == " + nicSupplementA + ", nicSupplementB == " + nicSupplementB + "): Unable to decode horizontal containment radius");
         }
     }
 }
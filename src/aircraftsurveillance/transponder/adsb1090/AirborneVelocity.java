@@ -28,6 +28,12 @@ public abstract class AirborneVelocity extends Adsb1090Message {
     boolean geometricHeightDifferenceAvailable;
     boolean geometricHeightDifferenceOverflow;
     int geometricHeightDifference;
+    volatile boolean fieldsDecoded = false;
+
+    /**
+     * Decodes the fields after the sub type code the first time one of them is read.
+     */
+    abstract void decodeFields();
 
     /**
      * Decodes 7 bytes of data into an ADS-B Airborne Velocity message.
@@ -47,30 +53,55 @@ public abstract class AirborneVelocity extends Adsb1090Message {
             throw new Adsb1090ParseException("AirborneVelocity.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airborne Velocity message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airborne Velocity message
+     * @throws Adsb1090ParseException
+     */
+    public static AirborneVelocity parse(long data) throws Adsb1090ParseException {
+        AirborneVelocity message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("AirborneVelocity.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airborne Velocity message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airborne Velocity message, or null if the data is not a valid message
+     */
+    public static AirborneVelocity tryParse(long data) {
         // verify the type code
         int typeCode = extractInt(data, 0, 5);
         // valid type code is 19
         if (typeCode != 19) {
-            throw new Adsb1090ParseException("AirborneVelocity.parse(data): type code is not valid (type code == " + typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         int subtypeCode = extractInt(data, 5, 3);
         // valid sub type codes are 1-4
         if ((subtypeCode < 1) | (subtypeCode > 4)) {
-            throw new Adsb1090ParseException("AirborneVelocity.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
 
         if (subtypeCode == 1) {
-            return VelocityOverGround.parse(data);
+            return VelocityOverGround.tryParse(data);
         } else if (subtypeCode == 2) {
-            return VelocityOverGround.parse(data);
+            return VelocityOverGround.tryParse(data);
         } else if (subtypeCode == 3) {
-            return AirspeedAndHeading.parse(data);
+            return AirspeedAndHeading.tryParse(data);
         } else if (subtypeCode == 4) {
-            return AirspeedAndHeading.parse(data);
+            return AirspeedAndHeading.tryParse(data);
         } else {
-            throw new Adsb1090ParseException("AirborneVelocity.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
     }
 
@@ -78,6 +109,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if intent has changed, false if no change in intent
      */
     public boolean getIntentChangeFlag() {
+        decodeFields();
         return intentChangeFlag;
     }
 
@@ -85,6 +117,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return reserved-A bit
      */
     public boolean getReservedA() {
+        decodeFields();
         return reservedA;
     }
 
@@ -94,6 +127,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return 0 if >= 10 m/s, 1 if < 10 m/s, 2 if < 3 m/s, 3 if < 1 m/s, 4 if < 0.3 m/s
      */
     public int getNavigationAccuracyCategoryVelocity() {
+        decodeFields();
         return navigationAccuracyCategoryVelocity;
     }
 
@@ -101,6 +135,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if vertical source is geometric, false if barometric
      */
     public boolean isVerticalSourceGeometric() {
+        decodeFields();
         return !verticalRateSource;
     }
 
@@ -108,6 +143,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if vertical source is barometric, false if geometric
      */
     public boolean isVerticalSourceBaro() {
+        decodeFields();
         return verticalRateSource;
     }
 
@@ -115,6 +151,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if vertical rate is positive or zero, false if negative
      */
     public boolean isVerticalRatePositive() {
+        decodeFields();
         return !verticalRateSign;
     }
 
@@ -122,6 +159,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if vertical rate is negative, false otherwise
      */
     public boolean isVerticalRateNegative() {
+        decodeFields();
         return verticalRateSign;
     }
 
@@ -129,6 +167,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if the vertical rate is available, otherwise false
      */
     public boolean isVerticalRateAvailable() {
+        decodeFields();
         return verticalRateAvailable;
     }
 
@@ -138,6 +177,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if the vertical rate is available and is in excess of 32608 ft/min, otherwise false
      */
     public boolean isVerticalRateOverflow() {
+        decodeFields();
         return verticalRateOverflow;
     }
 
@@ -145,6 +185,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return vertical rate in feet per minute
      */
     public int getVerticalRate() {
+        decodeFields();
         return verticalRate;
     }
 
@@ -152,6 +193,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return reserved-B1 bit
      */
     public boolean getReservedB1() {
+        decodeFields();
         return reservedB1;
     }
 
@@ -159,6 +201,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return reserved-B2 bit
      */
     public boolean getReservedB2() {
+        decodeFields();
         return reservedB2;
     }
 
@@ -166,6 +209,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if geometric height is above barometric altitude, false if geometric height is below barometric altitude
      */
     public boolean isGeometricHeightAboveBaroAltitude() {
+        decodeFields();
         return !geometricHeightDifferenceSign;
     }
 
@@ -173,6 +217,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if geometric height is below barometric altitude, false if geometric height is below barometric altitude
      */
     public boolean isGeometricHeightBelowBaroAltitude() {
+        decodeFields();
         return geometricHeightDifferenceSign;
     }
 
@@ -180,6 +225,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if the geometric height difference is available, otherwise false
      */
     public boolean isGeometricHeightDifferenceAvailable() {
+        decodeFields();
         return geometricHeightDifferenceAvailable;
     }
 
@@ -189,6 +235,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return true if the geometric height difference is available and is in excess of 3137.5 feet, otherwise false
      */
     public boolean isGeometricHeightDifferenceOverflow() {
+        decodeFields();
         return geometricHeightDifferenceOverflow;
     }
 
@@ -196,6 +243,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @return difference between geometric and barometric height in feet
      */
     public int getGeometricHeightDifference() {
+        decodeFields();
         return geometricHeightDifference;
     }
 
@@ -203,14 +251,13 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @param encodedVelocity encoded velocity from raw message, valid range is 0-1023
      * @param subtypeCode     sub type code from raw message, valid range is 1-4
      * @return velocity in knots
-     * @throws Adsb1090ParseException
      */
-    static int decodeVelocity(int encodedVelocity, int subtypeCode) throws Adsb1090ParseException {
+    static int decodeVelocity(int encodedVelocity, int subtypeCode) {
         if ((subtypeCode < 1) | (subtypeCode > 4)) {
-            throw new Adsb1090ParseException("AirborneVelocity.decodeVelocity(encodedVelocity == " + encodedVelocity + ", subtypeCode == " + subtypeCode + "): invalid sub type code (subtypeCode < 1) | (subtypeCode > 4)");
+            throw new IllegalArgumentException("AirborneVelocity.decodeVelocity(encodedVelocity == " + encodedVelocity + ", subtypeCode == " + subtypeCode + "): invalid sub type code (subtypeCode < 1) | (subtypeCode > 4)");
         }
         if ((encodedVelocity < 0) | (encodedVelocity > 1023)) {
-            throw new Adsb1090ParseException("AirborneVelocity.decodeVelocity(encodedVelocity == " + encodedVelocity + ", subtypeCode == " + subtypeCode + "): invalid encoded velocity (encodedVelocity < 0) | (encodedVelocity > 1023)");
+            throw new IllegalArgumentException("AirborneVelocity.decodeVelocity(encodedVelocity == " + encodedVelocity + ", subtypeCode == " + subtypeCode + "): invalid encoded velocity (encodedVelocity < 0) | (encodedVelocity > 1023)");
         }
 
         if (encodedVelocity == 0) {
@@ -227,7 +274,7 @@ public abstract class AirborneVelocity extends Adsb1090Message {
             // supersonic velocity
             return ((encodedVelocity - 1) * 4);
         } else {
-            throw new Adsb1090ParseException("AirborneVelocity.decodeVelocity(encodedVelocity == " + encodedVelocity + ", subtypeCode == " + subtypeCode + "): sub type code != 1,2,3,4");
+            throw new IllegalArgumentException("AirborneVelocity.decodeVelocity(encodedVelocity == " + encodedVelocity + ", subtypeCode == " + subtypeCode + "): sub type code != 1,2,3,4");
         }
     }
 
@@ -235,11 +282,10 @@ public abstract class AirborneVelocity extends Adsb1090Message {
     /**
      * @param encodedVerticalRate encoded vertical rate from raw message, valid range is 0-511
      * @return vertical rate in feet per minute
-     * @throws Adsb1090ParseException
      */
-    static int decodeVerticalRate(int encodedVerticalRate) throws Adsb1090ParseException {
+    static int decodeVerticalRate(int encodedVerticalRate) {
         if ((encodedVerticalRate < 0) | (encodedVerticalRate > 511)) {
-            throw new Adsb1090ParseException("AirborneVelocity.decodeVerticalRate(encodedVerticalRate == " + encodedVerticalRate + "): encoded vertical rate is not valid (encodedVerticalRate < 0) | (encodedVerticalRate > 511)");
+            throw new IllegalArgumentException("AirborneVelocity.decodeVerticalRate(encodedVerticalRate == " + encodedVerticalRate + "): encoded vertical rate is not valid (encodedVerticalRate < 0) | (encodedVerticalRate > 511)");
         }
 
         if (encodedVerticalRate == 0) {
@@ -256,9 +302,9 @@ public abstract class AirborneVelocity extends Adsb1090Message {
      * @param encodedGeometricHeightDifference encoded height difference from raw message, valid range is 0-127
      * @return geometric height difference in feet
      */
-    static int decodeGeometricHeightDifference(int encodedGeometricHeightDifference) throws Adsb1090ParseException {
+    static int decodeGeometricHeightDifference(int encodedGeometricHeightDifference) {
         if ((encodedGeometricHeightDifference < 0) | (encodedGeometricHeightDifference > 127)) {
-            throw new Adsb1090ParseException("AirborneVelocity.decodeGeometricHeightDifference(encodedGeometricHeightDifference == " + encodedGeometricHeightDifference + "): encoded geometric height differrerence is not valid (encodedGeometricHeightDifference < 0) | (encodedGeometricHeightDifference > 127)");
+            throw new IllegalArgumentException("AirborneVelocity.decodeGeometricHeightDifference(encodedGeometricHeightDifference == " + encodedGeometricHeightDifference + "): encoded geometric height differrerence is not valid (encodedGeometricHeightDifference < 0) | (encodedGeometricHeightDifference > 127)");
         }
 
         if (encodedGeometricHeightDifference == 0) {
@@ -31,26 +31,51 @@ public abstract class AircraftStatus extends Adsb1090Message {
             throw new Adsb1090ParseException("AircraftStatus.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Aircraft Status message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Aircraft Status message
+     * @throws Adsb1090ParseException
+     */
+    public static AircraftStatus parse(long data) throws Adsb1090ParseException {
+        AircraftStatus message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("AircraftStatus.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Aircraft Status message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Aircraft Status message, or null if the data is not a valid message
+     */
+    public static AircraftStatus tryParse(long data) {
         // verify the type code
         int typeCode = extractInt(data, 0, 5);
         // valid type code is 28
         if (typeCode != 28) {
-            throw new Adsb1090ParseException("AircraftStatus.parse(data): type code is not valid (type code == " + typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         int subtypeCode = extractInt(data, 5, 3);
         // valid sub type codes are 1-2
         if ((subtypeCode < 1) | (subtypeCode > 2)) {
-            throw new Adsb1090ParseException("AircraftStatus.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
 
         if (subtypeCode == 1) {
-            return EmergencyStatus.parse(data);
+            return EmergencyStatus.tryParse(data);
         } else if (subtypeCode == 2) {
-            return ResolutionAdvisory.parse(data);
+            return ResolutionAdvisory.tryParse(data);
         } else {
-            throw new Adsb1090ParseException("AircraftStatus.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
 
     }
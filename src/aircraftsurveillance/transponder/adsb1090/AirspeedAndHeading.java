@@ -69,67 +69,105 @@ public class AirspeedAndHeading extends AirborneVelocity {
             throw new Adsb1090ParseException("AirspeedAndHeading.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airspeed and Heading message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airspeed and Heading message
+     * @throws Adsb1090ParseException
+     */
+    public static AirspeedAndHeading parse(long data) throws Adsb1090ParseException {
+        AirspeedAndHeading message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("AirspeedAndHeading.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Airspeed and Heading message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Airspeed and Heading message, or null if the data is not a valid message
+     */
+    public static AirspeedAndHeading tryParse(long data) {
         AirspeedAndHeading message = new AirspeedAndHeading();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type code is 19
         if (message.typeCode != 19) {
-            throw new Adsb1090ParseException("AirspeedAndHeading.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 3);
         // valid sub type codes are 3-4
         if ((message.subtypeCode < 3) | (message.subtypeCode > 4)) {
-            throw new Adsb1090ParseException("AirspeedAndHeading.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
+        }
+
+        // the remaining fields are decoded by decodeFields() when they are first read
+        return message;
+    }
+
+    /**
+     * Decodes the fields after the sub type code the first time one of them is read.
+     */
+    @Override
+    void decodeFields() {
+        if (fieldsDecoded) {
+            return;
         }
 
-        message.intentChangeFlag = extractBoolean(data, 8);
-        message.reservedA = extractBoolean(data, 9);
-        message.navigationAccuracyCategoryVelocity = extractInt(data, 10, 3);
-        message.headingStatus = extractBoolean(data, 13);
-        message.heading = decodeHeading(extractInt(data, 14, 10));
-        message.airspeedType = extractBoolean(data, 24);
+        intentChangeFlag = extractBoolean(originalMessage, 8);
+        reservedA = extractBoolean(originalMessage, 9);
+        navigationAccuracyCategoryVelocity = extractInt(originalMessage, 10, 3);
+        headingStatus = extractBoolean(originalMessage, 13);
+        heading = decodeHeading(extractInt(originalMessage, 14, 10));
+        airspeedType = extractBoolean(originalMessage, 24);
 
-        int airspeed = extractInt(data, 25, 10);
-        message.airspeedAvailable = airspeed != 0;
-        message.airspeedOverflow = airspeed == 1023;
-        message.airspeed = decodeVelocity(airspeed, message.subtypeCode);
+        int encodedAirspeed = extractInt(originalMessage, 25, 10);
+        airspeedAvailable = encodedAirspeed != 0;
+        airspeedOverflow = encodedAirspeed == 1023;
+        airspeed = decodeVelocity(encodedAirspeed, subtypeCode);
 
-        message.verticalRateSource = extractBoolean(data, 35);
-        message.verticalRateSign = extractBoolean(data, 36);
+        verticalRateSource = extractBoolean(originalMessage, 35);
+        verticalRateSign = extractBoolean(originalMessage, 36);
 
-        int verticalRate = extractInt(data, 37, 9);
-        message.verticalRateAvailable = verticalRate != 0;
-        message.verticalRateOverflow = verticalRate == 511;
-        message.verticalRate = decodeVerticalRate(verticalRate);
+        int encodedVerticalRate = extractInt(originalMessage, 37, 9);
+        verticalRateAvailable = encodedVerticalRate != 0;
+        verticalRateOverflow = encodedVerticalRate == 511;
+        verticalRate = decodeVerticalRate(encodedVerticalRate);
 
-        message.reservedB1 = extractBoolean(data, 46);
-        message.reservedB2 = extractBoolean(data, 47);
-        message.geometricHeightDifferenceSign = extractBoolean(data, 48);
+        reservedB1 = extractBoolean(originalMessage, 46);
+        reservedB2 = extractBoolean(originalMessage, 47);
+        geometricHeightDifferenceSign = extractBoolean(originalMessage, 48);
 
-        int geometricHeightDifference = extractInt(data, 49, 7);
-        message.geometricHeightDifferenceAvailable = geometricHeightDifference != 0;
-        message.geometricHeightDifferenceOverflow = geometricHeightDifference == 127;
-        message.geometricHeightDifference = decodeGeometricHeightDifference(geometricHeightDifference);
+        int encodedGeometricHeightDifference = extractInt(originalMessage, 49, 7);
+        geometricHeightDifferenceAvailable = encodedGeometricHeightDifference != 0;
+        geometricHeightDifferenceOverflow = encodedGeometricHeightDifference == 127;
+        geometricHeightDifference = decodeGeometricHeightDifference(encodedGeometricHeightDifference);
 
-        return message;
+        fieldsDecoded = true;
     }
 
     /**
      * @return a String representing the ADS-B Airspeed and Heading message
      */
     public String toString() {
+        decodeFields();
+
         StringBuilder sb = new StringBuilder();
 
         sb.append("AirspeedAndHeading");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -183,6 +221,7 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @return true if the heading is available, otherwise false
      */
     public boolean isHeadingAvailable() {
+        decodeFields();
         return headingStatus;
     }
 
@@ -190,6 +229,7 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @return heading in degrees
      */
     public double getHeading() {
+        decodeFields();
         return heading;
     }
 
@@ -197,6 +237,7 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @return true if airspeed is indicated airspeed, false if true airspeed
      */
     public boolean isAirspeedIndicated() {
+        decodeFields();
         return !airspeedType;
     }
 
@@ -204,6 +245,7 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @return true if airspeed is true airspeed, false if indicated airspeed
      */
     public boolean isAirspeedTrue() {
+        decodeFields();
         return airspeedType;
     }
 
@@ -211,6 +253,7 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @return true if the airspeed is available, otherwise false
      */
     public boolean isAirspeedAvailable() {
+        decodeFields();
         return airspeedAvailable;
     }
 
@@ -220,6 +263,7 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @return true if the airspeed is available and is too large to fit in the space available, otherwise false
      */
     public boolean isAirspeedOverflow() {
+        decodeFields();
         return airspeedOverflow;
     }
 
@@ -227,6 +271,7 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @return airspeed in knots
      */
     public int getAirspeed() {
+        decodeFields();
         return airspeed;
     }
 
@@ -235,9 +280,9 @@ public class AirspeedAndHeading extends AirborneVelocity {
      * @param encodedHeading encoded heading from raw message, valid range is 0-1023
      * @return heading in degrees
      */
-    private static double decodeHeading(int encodedHeading) throws Adsb1090ParseException {
+    static double decodeHeading(int encodedHeading) {
         if ((encodedHeading < 0) | (encodedHeading > 1023)) {
-            throw new Adsb1090ParseException("AirspeedAndHeading.decodeHeading(encodedHeading == " + encodedHeading + "): encoded heading is not valid (encodedHeading < 0) | (encodedHeading > 1023)");
+            throw new IllegalArgumentException("AirspeedAndHeading.decodeHeading(encodedHeading == " + encodedHeading + "): encoded heading is not valid (encodedHeading < 0) | (encodedHeading > 1023)");
         }
 
         return encodedHeading * (360.0 / 1024.0);
@@ -63,21 +63,46 @@ public class EmergencyStatus extends AircraftStatus {
             throw new Adsb1090ParseException("EmergencyStatus.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Emergency Status message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Emergency Status message
+     * @throws Adsb1090ParseException
+     */
+    public static EmergencyStatus parse(long data) throws Adsb1090ParseException {
+        EmergencyStatus message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("EmergencyStatus.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Emergency Status message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Emergency Status message, or null if the data is not a valid message
+     */
+    public static EmergencyStatus tryParse(long data) {
         EmergencyStatus message = new EmergencyStatus();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type codes is 28
         if (message.typeCode != 28) {
-            throw new Adsb1090ParseException("EmergencyStatus.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 3);
         // valid sub type code is 1
         if (message.subtypeCode != 1) {
-            throw new Adsb1090ParseException("EmergencyStatus.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
         }
 
         int emergencyState = extractInt(data, 8, 3);
@@ -98,7 +123,7 @@ public class EmergencyStatus extends AircraftStatus {
         } else if (emergencyState == 7) {
             message.emergencyState = EmergencyState.RESERVED;
         } else {
-            throw new Adsb1090ParseException("EmergencyStatus.parse(data): emergency state is not valid (emergency state == " + emergencyState + ")");
+            return null;
         }
 
         message.modeACode = extractInt(data, 11, 13);
@@ -120,9 +145,7 @@ public class EmergencyStatus extends AircraftStatus {
         sb.append("EmergencyStatus");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -105,6 +105,10 @@ public class IdentificationAndCategory extends Adsb1090Message {
     private char character6;
     private char character7;
     private char character8;
+    private volatile boolean fieldsDecoded = false;
+
+    static final char CHARACTER_NOT_VALID = 0;  // returned by decodeCharacter for an unassigned character code
+    private static final long VALID_CHARACTERS = 0x03FF000107FFFFFEL;  // bit set for each assigned character code, A-Z, space and 0-9
 
     private IdentificationAndCategory() {
     }
@@ -127,127 +131,171 @@ public class IdentificationAndCategory extends Adsb1090Message {
             throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Identification and Category message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Identification and Category message
+     * @throws Adsb1090ParseException
+     */
+    public static IdentificationAndCategory parse(long data) throws Adsb1090ParseException {
+        IdentificationAndCategory message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Identification and Category message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Identification and Category message, or null if the data is not a valid message
+     */
+    public static IdentificationAndCategory tryParse(long data) {
         IdentificationAndCategory message = new IdentificationAndCategory();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type codes are 1-4
         if ((message.typeCode < 1) | (message.typeCode > 4)) {
-            throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         message.subtypeCode = -1;
 
-        int emitterCategory = extractInt(data, 5, 3);
-        if (message.typeCode == 4) {
-            if (emitterCategory == 0) {
-                message.emitterCategory = EmitterCategory.NO_INFORMATION_SET_A;
-            } else if (emitterCategory == 1) {
-                message.emitterCategory = EmitterCategory.LIGHT;
-            } else if (emitterCategory == 2) {
-                message.emitterCategory = EmitterCategory.SMALL;
-            } else if (emitterCategory == 3) {
-                message.emitterCategory = EmitterCategory.LARGE;
-            } else if (emitterCategory == 4) {
-                message.emitterCategory = EmitterCategory.HIGH_VORTEX_LARGE;
-            } else if (emitterCategory == 5) {
-                message.emitterCategory = EmitterCategory.HEAVY;
-            } else if (emitterCategory == 6) {
-                message.emitterCategory = EmitterCategory.HIGH_PERFORMANCE;
-            } else if (emitterCategory == 7) {
-                message.emitterCategory = EmitterCategory.ROTORCRAFT;
+        // the identification characters are checked up front, a message with an unassigned character is rejected
+        for (int startBit = 8; startBit < 56; startBit += 6) {
+            if (((VALID_CHARACTERS >>> extractInt(data, startBit, 6)) & 1) == 0) {
+                return null;
+            }
+        }
+
+        // the remaining fields are decoded by decodeFields() when they are first read
+        return message;
+    }
+
+    /**
+     * Decodes the emitter category and the identification characters the first time one of them is read.
+     */
+    private void decodeFields() {
+        if (fieldsDecoded) {
+            return;
+        }
+
+        int encodedEmitterCategory = extractInt(originalMessage, 5, 3);
+        if (typeCode == 4) {
+            if (encodedEmitterCategory == 0) {
+                emitterCategory = EmitterCategory.NO_INFORMATION_SET_A;
+            } else if (encodedEmitterCategory == 1) {
+                emitterCategory = EmitterCategory.LIGHT;
+            } else if (encodedEmitterCategory == 2) {
+                emitterCategory = EmitterCategory.SMALL;
+            } else if (encodedEmitterCategory == 3) {
+                emitterCategory = EmitterCategory.LARGE;
+            } else if (encodedEmitterCategory == 4) {
+                emitterCategory = EmitterCategory.HIGH_VORTEX_LARGE;
+            } else if (encodedEmitterCategory == 5) {
+                emitterCategory = EmitterCategory.HEAVY;
+            } else if (encodedEmitterCategory == 6) {
+                emitterCategory = EmitterCategory.HIGH_PERFORMANCE;
+            } else if (encodedEmitterCategory == 7) {
+                emitterCategory = EmitterCategory.ROTORCRAFT;
             } else {
-                throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): emitter category is not valid (type code == " + message.typeCode + ", emitter category == " + emitterCategory + ")");
+                emitterCategory = null;
             }
-        } else if (message.typeCode == 3) {
-            if (emitterCategory == 0) {
-                message.emitterCategory = EmitterCategory.NO_INFORMATION_SET_B;
-            } else if (emitterCategory == 1) {
-                message.emitterCategory = EmitterCategory.GLIDER_SAILPLANE;
-            } else if (emitterCategory == 2) {
-                message.emitterCategory = EmitterCategory.LIGHTER_THAN_AIR;
-            } else if (emitterCategory == 3) {
-                message.emitterCategory = EmitterCategory.PARACHUTIST_SKYDIVER;
-            } else if (emitterCategory == 4) {
-                message.emitterCategory = EmitterCategory.ULTRALIGHT_HANGGLIDER_PARAGLIDER;
-            } else if (emitterCategory == 5) {
-                message.emitterCategory = EmitterCategory.RESERVED_5_SET_B;
-            } else if (emitterCategory == 6) {
-                message.emitterCategory = EmitterCategory.UNMANNED_AERIAL_VEHICLE;
-            } else if (emitterCategory == 7) {
-                message.emitterCategory = EmitterCategory.SPACE_TRANSATMOSPHERIC_VEHICLE;
+        } else if (typeCode == 3) {
+            if (encodedEmitterCategory == 0) {
+                emitterCategory = EmitterCategory.NO_INFORMATION_SET_B;
+            } else if (encodedEmitterCategory == 1) {
+                emitterCategory = EmitterCategory.GLIDER_SAILPLANE;
+            } else if (encodedEmitterCategory == 2) {
+                emitterCategory = EmitterCategory.LIGHTER_THAN_AIR;
+            } else if (encodedEmitterCategory == 3) {
+                emitterCategory = EmitterCategory.PARACHUTIST_SKYDIVER;
+            } else if (encodedEmitterCategory == 4) {
+                emitterCategory = EmitterCategory.ULTRALIGHT_HANGGLIDER_PARAGLIDER;
+            } else if (encodedEmitterCategory == 5) {
+                emitterCategory = EmitterCategory.RESERVED_5_SET_B;
+            } else if (encodedEmitterCategory == 6) {
+                emitterCategory = EmitterCategory.UNMANNED_AERIAL_VEHICLE;
+            } else if (encodedEmitterCategory == 7) {
+                emitterCategory = EmitterCategory.SPACE_TRANSATMOSPHERIC_VEHICLE;
             } else {
-                throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): emitter category is not valid (type code == " + message.typeCode + ", emitter category == " + emitterCategory + ")");
+                emitterCategory = null;
             }
-        } else if (message.typeCode == 2) {
-            if (emitterCategory == 0) {
-                message.emitterCategory = EmitterCategory.NO_INFORMATION_SET_C;
-            } else if (emitterCategory == 1) {
-                message.emitterCategory = EmitterCategory.SURFACE_EMERGENCY_VEHICLE;
-            } else if (emitterCategory == 2) {
-                message.emitterCategory = EmitterCategory.SURFACE_SERVICE_VEHICLE;
-            } else if (emitterCategory == 3) {
-                message.emitterCategory = EmitterCategory.POINT_OBSTACLE;
-            } else if (emitterCategory == 4) {
-                message.emitterCategory = EmitterCategory.CLUSTER_OBSTACLE;
-            } else if (emitterCategory == 5) {
-                message.emitterCategory = EmitterCategory.LINE_OBSTACLE;
-            } else if (emitterCategory == 6) {
-                message.emitterCategory = EmitterCategory.RESERVED_6_SET_C;
-            } else if (emitterCategory == 7) {
-                message.emitterCategory = EmitterCategory.RESERVED_7_SET_C;
+        } else if (typeCode == 2) {
+            if (encodedEmitterCategory == 0) {
+                emitterCategory = EmitterCategory.NO_INFORMATION_SET_C;
+            } else if (encodedEmitterCategory == 1) {
+                emitterCategory = EmitterCategory.SURFACE_EMERGENCY_VEHICLE;
+            } else if (encodedEmitterCategory == 2) {
+                emitterCategory = EmitterCategory.SURFACE_SERVICE_VEHICLE;
+            } else if (encodedEmitterCategory == 3) {
+                emitterCategory = EmitterCategory.POINT_OBSTACLE;
+            } else if (encodedEmitterCategory == 4) {
+                emitterCategory = EmitterCategory.CLUSTER_OBSTACLE;
+            } else if (encodedEmitterCategory == 5) {
+                emitterCategory = EmitterCategory.LINE_OBSTACLE;
+            } else if (encodedEmitterCategory == 6) {
+                emitterCategory = EmitterCategory.RESERVED_6_SET_C;
+            } else if (encodedEmitterCategory == 7) {
+                emitterCategory = EmitterCategory.RESERVED_7_SET_C;
             } else {
-                throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): emitter category is not valid (type code == " + message.typeCode + ", emitter category == " + emitterCategory + ")");
+                emitterCategory = null;
             }
-        } else if (message.typeCode == 1) {
-            if (emitterCategory == 0) {
-                message.emitterCategory = EmitterCategory.RESERVED_0_SET_D;
-            } else if (emitterCategory == 1) {
-                message.emitterCategory = EmitterCategory.RESERVED_1_SET_D;
-            } else if (emitterCategory == 2) {
-                message.emitterCategory = EmitterCategory.RESERVED_2_SET_D;
-            } else if (emitterCategory == 3) {
-                message.emitterCategory = EmitterCategory.RESERVED_3_SET_D;
-            } else if (emitterCategory == 4) {
-                message.emitterCategory = EmitterCategory.RESERVED_4_SET_D;
-            } else if (emitterCategory == 5) {
-                message.emitterCategory = EmitterCategory.RESERVED_5_SET_D;
-            } else if (emitterCategory == 6) {
-                message.emitterCategory = EmitterCategory.RESERVED_6_SET_D;
-            } else if (emitterCategory == 7) {
-                message.emitterCategory = EmitterCategory.RESERVED_7_SET_D;
+        } else if (typeCode == 1) {
+            if (encodedEmitterCategory == 0) {
+                emitterCategory = EmitterCategory.RESERVED_0_SET_D;
+            } else if (encodedEmitterCategory == 1) {
+                emitterCategory = EmitterCategory.RESERVED_1_SET_D;
+            } else if (encodedEmitterCategory == 2) {
+                emitterCategory = EmitterCategory.RESERVED_2_SET_D;
+            } else if (encodedEmitterCategory == 3) {
+                emitterCategory = EmitterCategory.RESERVED_3_SET_D;
+            } else if (encodedEmitterCategory == 4) {
+                emitterCategory = EmitterCategory.RESERVED_4_SET_D;
+            } else if (encodedEmitterCategory == 5) {
+                emitterCategory = EmitterCategory.RESERVED_5_SET_D;
+            } else if (encodedEmitterCategory == 6) {
+                emitterCategory = EmitterCategory.RESERVED_6_SET_D;
+            } else if (encodedEmitterCategory == 7) {
+                emitterCategory = EmitterCategory.RESERVED_7_SET_D;
             } else {
-                throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): emitter category is not valid (type code == " + message.typeCode + ", emitter category == " + emitterCategory + ")");
+                emitterCategory = null;
             }
         } else {
-            throw new Adsb1090ParseException("IdentificationAndCategory.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            emitterCategory = null;
         }
 
-        message.character1 = decodeCharacter(extractInt(data, 8, 6));
-        message.character2 = decodeCharacter(extractInt(data, 14, 6));
-        message.character3 = decodeCharacter(extractInt(data, 20, 6));
-        message.character4 = decodeCharacter(extractInt(data, 26, 6));
-        message.character5 = decodeCharacter(extractInt(data, 32, 6));
-        message.character6 = decodeCharacter(extractInt(data, 38, 6));
-        message.character7 = decodeCharacter(extractInt(data, 44, 6));
-        message.character8 = decodeCharacter(extractInt(data, 50, 6));
+        character1 = decodeCharacter(extractInt(originalMessage, 8, 6));
+        character2 = decodeCharacter(extractInt(originalMessage, 14, 6));
+        character3 = decodeCharacter(extractInt(originalMessage, 20, 6));
+        character4 = decodeCharacter(extractInt(originalMessage, 26, 6));
+        character5 = decodeCharacter(extractInt(originalMessage, 32, 6));
+        character6 = decodeCharacter(extractInt(originalMessage, 38, 6));
+        character7 = decodeCharacter(extractInt(originalMessage, 44, 6));
+        character8 = decodeCharacter(extractInt(originalMessage, 50, 6));
 
-        return message;
+        fieldsDecoded = true;
     }
 
     /**
      * @return a String representing the ADS-B Identification and Category message
      */
     public String toString() {
+        decodeFields();
+
         StringBuilder sb = new StringBuilder();
 
         sb.append("IdentificationAndCategory");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -279,6 +327,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return aircraft emitter category
      */
     public EmitterCategory getEmitterCategory() {
+        decodeFields();
         return emitterCategory;
     }
 
@@ -286,6 +335,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 1st identification character
      */
     public char getCharacter1() {
+        decodeFields();
         return character1;
     }
 
@@ -293,6 +343,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 2nd identification character
      */
     public char getCharacter2() {
+        decodeFields();
         return character2;
     }
 
@@ -300,6 +351,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 3rd identification character
      */
     public char getCharacter3() {
+        decodeFields();
         return character3;
     }
 
@@ -307,6 +359,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 4th identification character
      */
     public char getCharacter4() {
+        decodeFields();
         return character4;
     }
 
@@ -314,6 +367,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 5th identification character
      */
     public char getCharacter5() {
+        decodeFields();
         return character5;
     }
 
@@ -321,6 +375,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 6th identification character
      */
     public char getCharacter6() {
+        decodeFields();
         return character6;
     }
 
@@ -328,6 +383,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 7th identification character
      */
     public char getCharacter7() {
+        decodeFields();
         return character7;
     }
 
@@ -335,6 +391,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return 8th identification character
      */
     public char getCharacter8() {
+        decodeFields();
         return character8;
     }
 
@@ -342,6 +399,8 @@ public class IdentificationAndCategory extends Adsb1090Message {
      * @return all of the identification characters appended together
      */
     public String getCharactersAsString() {
+        decodeFields();
+
         StringBuilder sb = new StringBuilder();
 
         sb.append(character1);
@@ -358,9 +417,9 @@ public class IdentificationAndCategory extends Adsb1090Message {
 
     /**
      * @param encodedCharacter encoded character
-     * @return decoded character
+     * @return decoded character or CHARACTER_NOT_VALID if the code is not assigned
      */
-    private static char decodeCharacter(int encodedCharacter) throws Adsb1090ParseException {
+    static char decodeCharacter(int encodedCharacter) {
         switch (encodedCharacter) {
             case 1:
                 return 'A';
@@ -437,7 +496,7 @@ public class IdentificationAndCategory extends Adsb1090Message {
             case 57:
                 return '9';
             default:
-                throw new Adsb1090ParseException("IdentificationAndCategory.decodeCharacter(encodedCharacter == " + encodedCharacter + "): encoded character is not valid");
+                return CHARACTER_NOT_VALID;
         }
     }
 
@@ -38,26 +38,51 @@ public abstract class OperationalStatus extends Adsb1090Message {
             throw new Adsb1090ParseException("OperationalStatus.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Operational Status message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Operational Status message
+     * @throws Adsb1090ParseException
+     */
+    public static OperationalStatus parse(long data) throws Adsb1090ParseException {
+        OperationalStatus message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("OperationalStatus.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Operational Status message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Operational Status message, or null if the data is not a valid message
+     */
+    public static OperationalStatus tryParse(long data) {
         // verify the type code
         int typeCode = extractInt(data, 0, 5);
         // valid type code is 31
         if (typeCode != 31) {
-            throw new Adsb1090ParseException("OperationalStatus.parse(data): type code is not valid (type code == " + typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         int subtypeCode = extractInt(data, 5, 3);
         // valid sub type codes are 0-1
         if ((subtypeCode < 0) | (subtypeCode > 1)) {
-            throw new Adsb1090ParseException("OperationalStatus.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
 
         if (subtypeCode == 0) {
-            return AirborneOperationalStatus.parse(data);
+            return AirborneOperationalStatus.tryParse(data);
         } else if (subtypeCode == 1) {
-            return SurfaceOperationalStatus.parse(data);
+            return SurfaceOperationalStatus.tryParse(data);
         } else {
-            throw new Adsb1090ParseException("OperationalStatus.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
 
     }
@@ -45,21 +45,46 @@ public class ResolutionAdvisory extends AircraftStatus {
             throw new Adsb1090ParseException("ResolutionAdvisory.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Resolution Advisory message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Resolution Advisory message
+     * @throws Adsb1090ParseException
+     */
+    public static ResolutionAdvisory parse(long data) throws Adsb1090ParseException {
+        ResolutionAdvisory message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("ResolutionAdvisory.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Resolution Advisory message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Resolution Advisory message, or null if the data is not a valid message
+     */
+    public static ResolutionAdvisory tryParse(long data) {
         ResolutionAdvisory message = new ResolutionAdvisory();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type code is 28
         if (message.typeCode != 28) {
-            throw new Adsb1090ParseException("ResolutionAdvisory.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 3);
         // valid sub type code is 2
         if (message.subtypeCode != 2) {
-            throw new Adsb1090ParseException("ResolutionAdvisory.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
         }
 
         message.activeResolutionAdvisories = extractInt(data, 8, 14);
@@ -81,9 +106,7 @@ public class ResolutionAdvisory extends AircraftStatus {
         sb.append("ResolutionAdvisory");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
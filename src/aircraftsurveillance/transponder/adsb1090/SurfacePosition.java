@@ -22,6 +22,8 @@ public class SurfacePosition extends Adsb1090Message {
     private boolean timeSynchronization;
     private CompactPositionReport cpr;
 
+    private volatile boolean fieldsDecoded = false;
+
     private SurfacePosition() {
 
     }
@@ -44,43 +46,80 @@ public class SurfacePosition extends Adsb1090Message {
             throw new Adsb1090ParseException("SurfacePosition.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Surface Position message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Surface Position message
+     * @throws Adsb1090ParseException
+     */
+    public static SurfacePosition parse(long data) throws Adsb1090ParseException {
+        SurfacePosition message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("SurfacePosition.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Surface Position message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Surface Position message, or null if the data is not a valid message
+     */
+    public static SurfacePosition tryParse(long data) {
         SurfacePosition message = new SurfacePosition();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid types codes are 5-8
         if ((message.typeCode < 5) | (message.typeCode > 8)) {
-            throw new Adsb1090ParseException("SurfacePosition.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         message.subtypeCode = -1;
 
-        message.movement = extractInt(data, 5, 7);
-        message.status = extractBoolean(data, 12);
-        message.heading = decodeHeading(extractInt(data, 13, 7));
-        message.timeSynchronization = extractBoolean(data, 20);
+        // the remaining fields are decoded by decodeFields() when they are first read
+        return message;
+    }
 
-        boolean cprFormat = extractBoolean(data, 21);
-        int encodedLatitude = extractInt(data, 22, 17);
-        int encodedLongitude = extractInt(data, 39, 17);
-        message.cpr = new CompactPositionReport(cprFormat, encodedLatitude, encodedLongitude);
+    /**
+     * Decodes the fields after the type code the first time one of them is read.
+     */
+    private void decodeFields() {
+        if (fieldsDecoded) {
+            return;
+        }
 
-        return message;
+        movement = extractInt(originalMessage, 5, 7);
+        status = extractBoolean(originalMessage, 12);
+        heading = decodeHeading(extractInt(originalMessage, 13, 7));
+        timeSynchronization = extractBoolean(originalMessage, 20);
+
+        boolean cprFormat = extractBoolean(originalMessage, 21);
+        int encodedLatitude = extractInt(originalMessage, 22, 17);
+        int encodedLongitude = extractInt(originalMessage, 39, 17);
+        cpr = new CompactPositionReport(cprFormat, encodedLatitude, encodedLongitude);
+
+        fieldsDecoded = true;
     }
 
     /**
      * @return a String representing the ADS-B Surface Position message
      */
     public String toString() {
+        decodeFields();
+
         StringBuilder sb = new StringBuilder();
 
         sb.append("SurfacePosition");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -110,6 +149,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return encoded movement information
      */
     public int getMovement() {
+        decodeFields();
         return movement;
     }
 
@@ -117,6 +157,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if movement information is available, otherwise false
      */
     public boolean isMovementInformationAvailable() {
+        decodeFields();
         return movement != 0;
     }
 
@@ -124,6 +165,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if aircraft is stopped, otherwise false
      */
     public boolean isAircraftStopped() {
+        decodeFields();
         return movement == 1;
     }
 
@@ -131,6 +173,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if aircraft is decelerating, otherwise false
      */
     public boolean isAircraftDecelerating() {
+        decodeFields();
         return movement == 125;
     }
 
@@ -138,6 +181,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if aircraft is accelerating, otherwise false
      */
     public boolean isAircraftAccelerating() {
+        decodeFields();
         return movement == 126;
     }
 
@@ -145,6 +189,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if aircraft is backing up, otherwise false
      */
     public boolean isAircraftBackingUp() {
+        decodeFields();
         return movement == 127;
     }
 
@@ -152,6 +197,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if the aircraft ground speed is available, otherwise false
      */
     public boolean isAircraftGroundSpeedAvailable() {
+        decodeFields();
         return movement != 0;
     }
 
@@ -161,6 +207,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if the aircraft ground speed is available and is in excess of 175 knots, otherwise false
      */
     public boolean isAircraftGroundSpeedOverflow() {
+        decodeFields();
         return movement == 124;
     }
 
@@ -170,6 +217,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if the output of the getAircraftGroundSpeed() method is valid, otherwise false
      */
     public boolean isAircraftGroundSpeedValid() {
+        decodeFields();
         return ((movement >= 1) & (movement <= 123));
     }
 
@@ -181,6 +229,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return aircraft ground speed rounded to the nearest knot or Integer.MIN_VALUE if ground speed is not available
      */
     public int getAircraftGroundSpeed() {
+        decodeFields();
         if (movement == 0) {
             return Integer.MIN_VALUE;
         } else if ((movement >= 1) & (movement <= 4)) {
@@ -213,6 +262,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return the minimum possible aircraft ground speed in knots
      */
     public double getMinAircraftGroundSpeed() {
+        decodeFields();
         if (movement == 0) {
             return Double.MIN_VALUE;
         } else if (movement == 1) {
@@ -245,6 +295,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return the maximum possible aircraft ground speed in knots
      */
     public double getMaxAircraftGroundSpeed() {
+        decodeFields();
         if (movement == 0) {
             return Double.MAX_VALUE;
         } else if (movement == 1) {
@@ -274,6 +325,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if heading is valid, otherwise false
      */
     public boolean isHeadingValid() {
+        decodeFields();
         return status;
     }
 
@@ -281,6 +333,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return heading in degrees
      */
     public double getHeading() {
+        decodeFields();
         return heading;
     }
 
@@ -290,6 +343,7 @@ public class SurfacePosition extends Adsb1090Message {
      * @return true if synchronized, false if not synchronized
      */
     public boolean isTimeSynchronized() {
+        decodeFields();
         return timeSynchronization;
     }
 
@@ -297,17 +351,17 @@ public class SurfacePosition extends Adsb1090Message {
      * @return compact position report
      */
     public CompactPositionReport getCompactPositionReport() {
+        decodeFields();
         return cpr;
     }
 
     /**
      * @param encodedHeading encoded heading from raw message, valid range is 0-127
      * @return heading in degrees
-     * @throws Adsb1090ParseException
      */
-    private static double decodeHeading(int encodedHeading) throws Adsb1090ParseException {
+    static double decodeHeading(int encodedHeading) {
         if ((encodedHeading < 0) | (encodedHeading > 127)) {
-            throw new Adsb1090ParseException("SurfacePosition.decodeHeading(encodedHeading == " + encodedHeading + "): encoded heading is not valid (encodedHeading < 0) | (encodedHeading > 127)");
+            throw new IllegalArgumentException("SurfacePosition.decodeHeading(encodedHeading == " + encodedHeading + "): encoded heading is not valid (encodedHeading < 0) | (encodedHeading > 127)");
         }
 
         return encodedHeading * (360.0 / 128.0);
@@ -24,24 +24,49 @@ public class SurfaceSystemStatus extends Adsb1090Message {
             throw new Adsb1090ParseException("SurfaceSystemStatus.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Surface System Status message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Surface System Status message
+     * @throws Adsb1090ParseException
+     */
+    public static SurfaceSystemStatus parse(long data) throws Adsb1090ParseException {
+        SurfaceSystemStatus message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("SurfaceSystemStatus.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Surface System Status message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Surface System Status message, or null if the data is not a valid message
+     */
+    public static SurfaceSystemStatus tryParse(long data) {
         SurfaceSystemStatus message = new SurfaceSystemStatus();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type code is 24
         if (message.typeCode != 24) {
-            throw new Adsb1090ParseException("SurfaceSystemStatus.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 3);
         // valid sub type code is 1
         if (message.subtypeCode != 1) {
-            throw new Adsb1090ParseException("SurfaceSystemStatus.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
         }
 
-        throw new Adsb1090ParseException("SurfaceSystemStatus.parse(data): not implemented");
+        return null;
     }
 
     /**
@@ -53,9 +78,7 @@ public class SurfaceSystemStatus extends Adsb1090Message {
         sb.append("SurfaceSystemStatus");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
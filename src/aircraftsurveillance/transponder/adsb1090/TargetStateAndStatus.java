@@ -27,26 +27,51 @@ public abstract class TargetStateAndStatus extends Adsb1090Message {
             throw new Adsb1090ParseException("TargetStateAndStatus.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Target State and Status message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Target State and Status message
+     * @throws Adsb1090ParseException
+     */
+    public static TargetStateAndStatus parse(long data) throws Adsb1090ParseException {
+        TargetStateAndStatus message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("TargetStateAndStatus.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Target State and Status message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Target State and Status message, or null if the data is not a valid message
+     */
+    public static TargetStateAndStatus tryParse(long data) {
         // verify the type code
         int typeCode = extractInt(data, 0, 5);
         // valid type code is 29
         if (typeCode != 29) {
-            throw new Adsb1090ParseException("TargetStateAndStatus.parse(data): type code is not valid (type code == " + typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         int subtypeCode = extractInt(data, 5, 2);
         // valid sub type codes are 0-1
         if ((subtypeCode < 0) | (subtypeCode > 1)) {
-            throw new Adsb1090ParseException("TargetStateAndStatus.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
 
         if (subtypeCode == 0) {
-            return TargetStateAndStatusVersion1.parse(data);
+            return TargetStateAndStatusVersion1.tryParse(data);
         } else if (subtypeCode == 1) {
-            return TargetStateAndStatusVersion2.parse(data);
+            return TargetStateAndStatusVersion2.tryParse(data);
         } else {
-            throw new Adsb1090ParseException("TargetStateAndStatus.parse(data): sub type code is not valid (sub type code == " + subtypeCode + ")");
+            return null;
         }
 
     }
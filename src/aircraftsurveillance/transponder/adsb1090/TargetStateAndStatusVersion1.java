@@ -65,21 +65,46 @@ public class TargetStateAndStatusVersion1 extends TargetStateAndStatus {
             throw new Adsb1090ParseException("TargetStateAndStatusVersion1.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Target State and Status (version 1) message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Target State and Status (version 1) message
+     * @throws Adsb1090ParseException
+     */
+    public static TargetStateAndStatusVersion1 parse(long data) throws Adsb1090ParseException {
+        TargetStateAndStatusVersion1 message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("TargetStateAndStatusVersion1.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Target State and Status (version 1) message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Target State and Status (version 1) message, or null if the data is not a valid message
+     */
+    public static TargetStateAndStatusVersion1 tryParse(long data) {
         TargetStateAndStatusVersion1 message = new TargetStateAndStatusVersion1();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type code is 29
         if (message.typeCode != 29) {
-            throw new Adsb1090ParseException("TargetStateAndStatusVersion1.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 2);
         // valid sub type code is 0
         if (message.subtypeCode != 0) {
-            throw new Adsb1090ParseException("TargetStateAndStatusVersion1.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
         }
 
         message.verticalDataAvailable = extractInt(data, 7, 2);
@@ -111,9 +136,7 @@ public class TargetStateAndStatusVersion1 extends TargetStateAndStatus {
         sb.append("TargetStateAndStatusVersion1");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
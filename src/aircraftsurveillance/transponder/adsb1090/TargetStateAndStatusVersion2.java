@@ -74,21 +74,46 @@ public class TargetStateAndStatusVersion2 extends TargetStateAndStatus {
             throw new Adsb1090ParseException("TargetStateAndStatusVersion2.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Target State and Status Information (version 2) message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Target State and Status Information (version 2) message.
+     * @throws Adsb1090ParseException
+     */
+    public static TargetStateAndStatusVersion2 parse(long data) throws Adsb1090ParseException {
+        TargetStateAndStatusVersion2 message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("TargetStateAndStatusVersion2.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Target State and Status Information (version 2) message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Target State and Status Information (version 2) message, or null if the data is not a valid message
+     */
+    public static TargetStateAndStatusVersion2 tryParse(long data) {
         TargetStateAndStatusVersion2 message = new TargetStateAndStatusVersion2();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type code is 29
         if (message.typeCode != 29) {
-            throw new Adsb1090ParseException("TargetStateAndStatusVersion2.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 2);
         // valid sub type code is 1
         if (message.subtypeCode != 1) {
-            throw new Adsb1090ParseException("TargetStateAndStatusVersion2.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
         }
 
         message.silSupplement = extractBoolean(data, 7);
@@ -130,9 +155,7 @@ public class TargetStateAndStatusVersion2 extends TargetStateAndStatus {
         sb.append("TargetStateAndStatusVersion2");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -347,11 +370,10 @@ public class TargetStateAndStatusVersion2 extends TargetStateAndStatus {
     /**
      * @param encodedAltitude encoded altitude from raw message, valid range is 0-2047
      * @return altitude in feet
-     * @throws Adsb1090ParseException
      */
-    private static int decodeSelectedAltitude(int encodedAltitude) throws Adsb1090ParseException {
+    private static int decodeSelectedAltitude(int encodedAltitude) {
         if ((encodedAltitude < 0) | (encodedAltitude > 2047)) {
-            throw new Adsb1090ParseException("TargetStateAndStatusVersion2.decodeSelectedAltitude(encodedAltitude == " + encodedAltitude + "): encoded altitude is not valid (encodedAltitude < 0) | (encodedAltitude > 2047)");
+            throw new IllegalArgumentException("TargetStateAndStatusVersion2.decodeSelectedAltitude(encodedAltitude == " + encodedAltitude + "): encoded altitude is not valid (encodedAltitude < 0) | (encodedAltitude > 2047)");
         }
         if (encodedAltitude == 0) {
             return Integer.MIN_VALUE;
@@ -363,11 +385,10 @@ public class TargetStateAndStatusVersion2 extends TargetStateAndStatus {
     /**
      * @param encodedBarometricPressureSetting encoded barometric pressure setting from raw message, valid range is 0-511
      * @return barometric pressure setting in millibars
-     * @throws Adsb1090ParseException
      */
-    private static double decodeBarometricPressureSetting(int encodedBarometricPressureSetting) throws Adsb1090ParseException {
+    private static double decodeBarometricPressureSetting(int encodedBarometricPressureSetting) {
         if ((encodedBarometricPressureSetting < 0) | (encodedBarometricPressureSetting > 511)) {
-            throw new Adsb1090ParseException("TargetStateAndStatusVersion2.decodeBarometricPressureSetting(encodedBarometricPressureSetting == " + encodedBarometricPressureSetting + "): encoded barometric pressure setting is not valid (encodedBarometricPressureSetting < 0) | (encodedBarometricPressureSetting > 511)");
+            throw new IllegalArgumentException("TargetStateAndStatusVersion2.decodeBarometricPressureSetting(encodedBarometricPressureSetting == " + encodedBarometricPressureSetting + "): encoded barometric pressure setting is not valid (encodedBarometricPressureSetting < 0) | (encodedBarometricPressureSetting > 511)");
         }
         if (encodedBarometricPressureSetting == 0) {
             return Double.NaN;
@@ -381,11 +402,10 @@ public class TargetStateAndStatusVersion2 extends TargetStateAndStatus {
      *
      * @param encodedHeading encoded selectedHeading from raw message, valid range is 0-511
      * @return selectedHeading in degrees
-     * @throws Adsb1090ParseException
      */
-    private static double decodeHeading(int encodedHeading) throws Adsb1090ParseException {
+    private static double decodeHeading(int encodedHeading) {
         if ((encodedHeading < 0) | (encodedHeading > 511)) {
-            throw new Adsb1090ParseException("TargetStateAndStatusVersion2.decodeHeading(encodedHeading == " + encodedHeading + "): encoded heading is not valid (encodedHeading < 0) | (encodedHeading > 511)");
+            throw new IllegalArgumentException("TargetStateAndStatusVersion2.decodeHeading(encodedHeading == " + encodedHeading + "): encoded heading is not valid (encodedHeading < 0) | (encodedHeading > 511)");
         }
 
         return (encodedHeading * 0.703125);
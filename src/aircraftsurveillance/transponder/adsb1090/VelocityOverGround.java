@@ -74,72 +74,110 @@ public class VelocityOverGround extends AirborneVelocity {
             throw new Adsb1090ParseException("VelocityOverGround.parse(data): data.length != 7 (data.length == " + data.length + ")");
         }
 
+        return parse(toLong(data));
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Velocity Over Ground message.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Velocity Over Ground message
+     * @throws Adsb1090ParseException
+     */
+    public static VelocityOverGround parse(long data) throws Adsb1090ParseException {
+        VelocityOverGround message = tryParse(data);
+        if (message == null) {
+            throw new Adsb1090ParseException("VelocityOverGround.parse(data): data is not a valid message (data == 0x" + toHexString(data) + ")");
+        }
+        return message;
+    }
+
+    /**
+     * Decodes the 56-bit ME field into an ADS-B Velocity Over Ground message without throwing an exception.
+     *
+     * @param data the 56 bits to be decoded, right aligned in a long
+     * @return the decoded ADS-B Velocity Over Ground message, or null if the data is not a valid message
+     */
+    public static VelocityOverGround tryParse(long data) {
         VelocityOverGround message = new VelocityOverGround();
-        message.originalMessage = data.clone();
+        message.originalMessage = data;
 
         // verify the type code
         message.typeCode = extractInt(data, 0, 5);
         // valid type code is 19
         if (message.typeCode != 19) {
-            throw new Adsb1090ParseException("VelocityOverGround.parse(data): type code is not valid (type code == " + message.typeCode + ")");
+            return null;
         }
 
         // verify the subtype code
         message.subtypeCode = extractInt(data, 5, 3);
         // valid sub type codes are 1-2
         if ((message.subtypeCode != 1) & (message.subtypeCode != 2)) {
-            throw new Adsb1090ParseException("VelocityOverGround.parse(data): sub type code is not valid (sub type code == " + message.subtypeCode + ")");
+            return null;
+        }
+
+        // the remaining fields are decoded by decodeFields() when they are first read
+        return message;
+    }
+
+    /**
+     * Decodes the fields after the sub type code the first time one of them is read.
+     */
+    @Override
+    void decodeFields() {
+        if (fieldsDecoded) {
+            return;
         }
 
-        message.intentChangeFlag = extractBoolean(data, 8);
-        message.reservedA = extractBoolean(data, 9);
-        message.navigationAccuracyCategoryVelocity = extractInt(data, 10, 3);
-        message.eastWestVelocityDirection = extractBoolean(data, 13);
+        intentChangeFlag = extractBoolean(originalMessage, 8);
+        reservedA = extractBoolean(originalMessage, 9);
+        navigationAccuracyCategoryVelocity = extractInt(originalMessage, 10, 3);
+        eastWestVelocityDirection = extractBoolean(originalMessage, 13);
 
-        int eastWestVelocity = extractInt(data, 14, 10);
-        message.eastWestVelocityAvailable = eastWestVelocity != 0;
-        message.eastWestVelocityOverflow = eastWestVelocity == 1023;
-        message.eastWestVelocity = decodeVelocity(eastWestVelocity, message.subtypeCode);
+        int encodedEastWestVelocity = extractInt(originalMessage, 14, 10);
+        eastWestVelocityAvailable = encodedEastWestVelocity != 0;
+        eastWestVelocityOverflow = encodedEastWestVelocity == 1023;
+        eastWestVelocity = decodeVelocity(encodedEastWestVelocity, subtypeCode);
 
-        message.northSouthVelocityDirection = extractBoolean(data, 24);
+        northSouthVelocityDirection = extractBoolean(originalMessage, 24);
 
-        int northSouthVelocity = extractInt(data, 25, 10);
-        message.northSouthVelocityAvailable = northSouthVelocity != 0;
-        message.northSouthVelocityOverflow = northSouthVelocity == 1023;
-        message.northSouthVelocity = decodeVelocity(northSouthVelocity, message.subtypeCode);
+        int encodedNorthSouthVelocity = extractInt(originalMessage, 25, 10);
+        northSouthVelocityAvailable = encodedNorthSouthVelocity != 0;
+        northSouthVelocityOverflow = encodedNorthSouthVelocity == 1023;
+        northSouthVelocity = decodeVelocity(encodedNorthSouthVelocity, subtypeCode);
 
-        message.verticalRateSource = extractBoolean(data, 35);
-        message.verticalRateSign = extractBoolean(data, 36);
+        verticalRateSource = extractBoolean(originalMessage, 35);
+        verticalRateSign = extractBoolean(originalMessage, 36);
 
-        int verticalRate = extractInt(data, 37, 9);
-        message.verticalRateAvailable = verticalRate != 0;
-        message.verticalRateOverflow = verticalRate == 511;
-        message.verticalRate = decodeVerticalRate(verticalRate);
+        int encodedVerticalRate = extractInt(originalMessage, 37, 9);
+        verticalRateAvailable = encodedVerticalRate != 0;
+        verticalRateOverflow = encodedVerticalRate == 511;
+        verticalRate = decodeVerticalRate(encodedVerticalRate);
 
-        message.reservedB1 = extractBoolean(data, 46);
-        message.reservedB2 = extractBoolean(data, 47);
-        message.geometricHeightDifferenceSign = extractBoolean(data, 48);
+        reservedB1 = extractBoolean(originalMessage, 46);
+        reservedB2 = extractBoolean(originalMessage, 47);
+        geometricHeightDifferenceSign = extractBoolean(originalMessage, 48);
 
-        int geometricHeightDifference = extractInt(data, 49, 7);
-        message.geometricHeightDifferenceAvailable = geometricHeightDifference != 0;
-        message.geometricHeightDifferenceOverflow = geometricHeightDifference == 127;
-        message.geometricHeightDifference = decodeGeometricHeightDifference(geometricHeightDifference);
+        int encodedGeometricHeightDifference = extractInt(originalMessage, 49, 7);
+        geometricHeightDifferenceAvailable = encodedGeometricHeightDifference != 0;
+        geometricHeightDifferenceOverflow = encodedGeometricHeightDifference == 127;
+        geometricHeightDifference = decodeGeometricHeightDifference(encodedGeometricHeightDifference);
 
-        return message;
+        fieldsDecoded = true;
     }
 
     /**
      * @return a String representing the ADS-B Velocity Over Ground message
      */
     public String toString() {
+        decodeFields();
+
         StringBuilder sb = new StringBuilder();
 
         sb.append("VelocityOverGround");
         sb.append(System.lineSeparator());
         sb.append("original message = 0x");
-        for (int i : originalMessage) {
-            sb.append(String.format("%02x", i));
-        }
+        sb.append(toHexString(originalMessage));
         sb.append(System.lineSeparator());
         sb.append("type code = " + typeCode);
         sb.append(System.lineSeparator());
@@ -197,6 +235,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if velocity is to the east, false if velocity is to the west
      */
     public boolean isEastVelocity() {
+        decodeFields();
         return !eastWestVelocityDirection;
     }
 
@@ -204,6 +243,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if velocity is to the west, false if velocity is to the east
      */
     public boolean isWestVelocity() {
+        decodeFields();
         return eastWestVelocityDirection;
     }
 
@@ -211,6 +251,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if the east west velocity is available, otherwise false
      */
     public boolean isEastWestVelocityAvailable() {
+        decodeFields();
         return eastWestVelocityAvailable;
     }
 
@@ -220,6 +261,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if the east west velocity is available and is too large to fit in the space available, otherwise false
      */
     public boolean isEastWestVelocityOverflow() {
+        decodeFields();
         return eastWestVelocityOverflow;
     }
 
@@ -227,6 +269,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return East west velocity in knots
      */
     public int getEastWestVelocity() {
+        decodeFields();
         return eastWestVelocity;
     }
 
@@ -234,6 +277,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if velocity is to the north, false is velocity is to the south
      */
     public boolean isNorthVelocity() {
+        decodeFields();
         return !northSouthVelocityDirection;
     }
 
@@ -241,6 +285,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if velocity is to the south, false is velocity is to the north
      */
     public boolean isSouthVelocity() {
+        decodeFields();
         return northSouthVelocityDirection;
     }
 
@@ -248,6 +293,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if the east west velocity is available, otherwise false
      */
     public boolean isNorthSouthVelocityAvailable() {
+        decodeFields();
         return northSouthVelocityAvailable;
     }
 
@@ -257,6 +303,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return true if the north south velocity is available and is too large to fit in the space available, otherwise false
      */
     public boolean isNorthSouthVelocityOverflow() {
+        decodeFields();
         return northSouthVelocityOverflow;
     }
 
@@ -264,6 +311,7 @@ public class VelocityOverGround extends AirborneVelocity {
      * @return North south velocity in knots
      */
     public int getNorthSouthVelocity() {
+        decodeFields();
         return northSouthVelocity;
     }
 